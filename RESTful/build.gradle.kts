@@ -2,6 +2,7 @@
 plugins {
     `java-library`
     jacoco
+    id("me.champeau.jmh") version "0.6.6"
 }
 
 group = "org.example"
@@ -20,6 +21,9 @@ dependencies {
     testImplementation("org.mockito:mockito-core:4.6.1")
     testImplementation("org.eclipse.jetty:jetty-server:11.0.9")
     testImplementation("org.eclipse.jetty:jetty-servlet:11.0.9")
+    testAnnotationProcessor(project(":RESTfulProcessor"))
+    jmh("org.openjdk.jmh:jmh-core:1.35")
+    jmh("org.openjdk.jmh:jmh-generator-annprocess:1.35")
 
 }
 tasks.withType<Test>() {
@@ -28,4 +32,12 @@ tasks.withType<Test>() {
 java {
     sourceCompatibility = JavaVersion.VERSION_17
     targetCompatibility = JavaVersion.VERSION_17
-}
\ No newline at end of file
+}
+tasks.register<Test>("testOnJava21") {
+    description = "Runs the tests on a Java 21 runtime, where ResourceServlet can dispatch on virtual threads."
+    group = "verification"
+    javaLauncher.set(javaToolchains.launcherFor { languageVersion.set(JavaLanguageVersion.of(21)) })
+    testClassesDirs = sourceSets.test.get().output.classesDirs
+    classpath = sourceSets.test.get().runtimeClasspath
+    useJUnitPlatform()
+}
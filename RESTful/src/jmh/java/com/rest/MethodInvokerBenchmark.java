@@ -0,0 +1,42 @@
+package com.rest;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.lang.reflect.Method;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(2)
+public class MethodInvokerBenchmark {
+    private final Messages messages = new Messages();
+    private final Object[] arguments = new Object[]{"hello", 42};
+    private MethodInvoker.Invocation reflective;
+    private MethodInvoker.Invocation bound;
+
+    @Setup
+    public void setUp() throws NoSuchMethodException {
+        Method method = Messages.class.getMethod("get", String.class, int.class);
+        reflective = MethodInvoker.Invocation.reflective(method);
+        bound = MethodInvoker.Invocation.bind(method);
+    }
+
+    @Benchmark
+    public Object reflective() throws Throwable {
+        return reflective.invoke(messages, arguments);
+    }
+
+    @Benchmark
+    public Object bound() throws Throwable {
+        return bound.invoke(messages, arguments);
+    }
+
+    public static class Messages {
+        public String get(String name, int id) {
+            return name;
+        }
+    }
+}
@@ -0,0 +1,11 @@
+package com.rest;
+
+import java.util.Map;
+
+public interface GeneratedInvokers {
+    Map<String, Invoker> invokers();
+
+    interface Invoker {
+        Object invoke(Object target, Object[] arguments) throws Throwable;
+    }
+}
@@ -0,0 +1,16 @@
+package com.rest;
+
+import java.util.List;
+
+public interface GeneratedRoutes {
+    List<Route> routes();
+
+    record Route(String path, String httpMethod, String name, List<Class<?>> parameterTypes, List<Parameter> parameters) {
+        public boolean isLocator() {
+            return httpMethod == null;
+        }
+    }
+
+    record Parameter(String pathParam, String queryParam, String defaultValue) {
+    }
+}
@@ -1,57 +1,101 @@
 package com.rest;
 
-import jakarta.ws.rs.PathParam;
-import jakarta.ws.rs.QueryParam;
-import jakarta.ws.rs.WebApplicationException;
 import jakarta.ws.rs.container.ResourceContext;
+import jakarta.ws.rs.core.MultivaluedMap;
 import jakarta.ws.rs.core.UriInfo;
 
+import java.lang.invoke.*;
 import java.lang.reflect.InvocationTargetException;
 import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
 import java.lang.reflect.Parameter;
-import java.util.Arrays;
-import java.util.List;
-import java.util.Optional;
+import java.lang.reflect.ParameterizedType;
+import java.util.*;
+import java.util.function.Function;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 class MethodInvoker {
+    static final ClassValue<Map<String, GeneratedInvokers.Invoker>> GENERATED = new ClassValue<>() {
+        @Override
+        protected Map<String, GeneratedInvokers.Invoker> computeValue(Class<?> type) {
+            try {
+                Class<?> generated = Class.forName(type.getName() + "$Invokers", true, type.getClassLoader());
+                if (!GeneratedInvokers.class.isAssignableFrom(generated)) return Map.of();
+                return Map.copyOf(((GeneratedInvokers) generated.getConstructor().newInstance()).invokers());
+            } catch (ReflectiveOperationException | LinkageError e) {
+                return Map.of();
+            }
+        }
+    };
+
+    private final Binding[] bindings;
+    private final Invocation invocation;
 
-    private static ValueProvider pathParam = (parameter, uriInfo) ->
-            Optional.ofNullable(parameter.getAnnotation(PathParam.class))
-                    .map(annotation -> uriInfo.getPathParameters().get(annotation.value()));
-    private static ValueProvider queryParam = (parameter, uriInfo) ->
-            Optional.ofNullable(parameter.getAnnotation(QueryParam.class))
-                    .map(annotation -> uriInfo.getPathParameters().get(annotation.value()));
-    private static List<ValueProvider> providers = List.of(pathParam, queryParam);
+    MethodInvoker(Method method) {
+        this(method, RouteTable.parameters(method));
+    }
 
-    static Object invoke(Method method, ResourceContext resourceContext, UriInfoBuilder builder) {
-        Object result;
+    MethodInvoker(Method method, List<GeneratedRoutes.Parameter> parameters) {
+        Parameter[] declared = method.getParameters();
+        this.bindings = new Binding[declared.length];
+        for (int i = 0; i < declared.length; i++) bindings[i] = binding(declared[i], parameters.get(i));
+        this.invocation = Invocation.bind(method);
+    }
+
+    Object invoke(ResourceContext resourceContext, UriInfoBuilder builder) {
+        Request request = new Request(resourceContext, builder.createUriInfo());
+        Object[] arguments = new Object[bindings.length];
+        for (int i = 0; i < bindings.length; i++) arguments[i] = bindings[i].bind(request);
         try {
-            UriInfo uriInfo = builder.createUriInfo();
-            result = method.invoke(builder.getLastMatchedResource(),
-                    Arrays.stream(method.getParameters()).map(parameter -> injectParameter(parameter, uriInfo)
-                            .or(() -> injectContext(parameter, resourceContext, uriInfo))
-                            .orElse(null)).collect(Collectors.toList()).toArray(Object[]::new));
-        } catch (InvocationTargetException e) {
-            if (e.getCause() instanceof WebApplicationException) throw ((WebApplicationException) e.getCause());
-            throw new RuntimeException(e);
-        } catch (IllegalAccessException e) {
+            return invocation.invoke(builder.getLastMatchedResource(), arguments);
+        } catch (RuntimeException | Error e) {
+            throw e;
+        } catch (Throwable e) {
             throw new RuntimeException(e);
         }
-        return result;
     }
 
-    private static Optional<Object> injectContext(Parameter parameter, ResourceContext resourceContext, UriInfo uriInfo) {
-        if (parameter.getType().equals(ResourceContext.class)) return Optional.of(resourceContext);
-        if (parameter.getType().equals(UriInfo.class)) return Optional.of(uriInfo);
-        return Optional.of(resourceContext.getResource(parameter.getType()));
+    private static Binding binding(Parameter parameter, GeneratedRoutes.Parameter plan) {
+        Binding context = context(parameter.getType());
+        Source[] sources = Stream.of(
+                        Optional.ofNullable(plan.pathParam()).map(name -> new Source(name, Request::getPathParameters)),
+                        Optional.ofNullable(plan.queryParam()).map(name -> new Source(name, Request::getQueryParameters)))
+                .flatMap(Optional::stream).toArray(Source[]::new);
+        if (sources.length == 0) return context;
+        List<String> defaults = Optional.ofNullable(plan.defaultValue()).map(List::of).orElse(null);
+        Optional<Class<?>> element = elementType(parameter);
+        Class<?> type = parameter.getType();
+        return request -> {
+            List<String> values = null;
+            for (int i = 0; i < sources.length && values == null; i++) values = sources[i].values(request);
+            if (values == null || values.isEmpty()) values = defaults;
+            if (values == null) return element.isPresent() ? List.of() : context.bind(request);
+            Optional<Object> converted = element.isPresent() ? convertAll(element.get(), values) : convert(type, values);
+            return converted.isPresent() ? converted.get() : context.bind(request);
+        };
     }
 
-    private static Optional<Object> injectParameter(Parameter parameter, UriInfo uriInfo) {
-        return providers.stream().map(provider -> provider.provide(parameter, uriInfo))
-                .filter(Optional::isPresent)
-                .findFirst()
-                .flatMap(values -> values.flatMap(it -> convert(parameter.getType(), it)));
+    private static Optional<Class<?>> elementType(Parameter parameter) {
+        if (parameter.getType() != List.class && parameter.getType() != Collection.class) return Optional.empty();
+        if (!(parameter.getParameterizedType() instanceof ParameterizedType type)) return Optional.of(String.class);
+        return Optional.of(type.getActualTypeArguments()[0]).filter(Class.class::isInstance).map(t -> (Class<?>) t);
+    }
+
+    private static Optional<Object> convertAll(Class<?> element, List<String> values) {
+        List<Object> converted = new ArrayList<>(values.size());
+        for (String value : values) {
+            Optional<Object> result = convert(element, List.of(value));
+            if (result.isEmpty()) return Optional.empty();
+            converted.add(result.get());
+        }
+        return Optional.of(Collections.unmodifiableList(converted));
+    }
+
+    private static Binding context(Class<?> type) {
+        if (type.equals(ResourceContext.class)) return request -> request.resourceContext;
+        if (type.equals(UriInfo.class)) return request -> request.uriInfo;
+        return request -> request.resourceContext.getResource(type);
     }
 
     public static Optional<Object> convert(Class<?> converter, List<String> values) {
@@ -60,7 +104,128 @@ class MethodInvoker {
                 .or(() -> ConverterFactory.convert(converter, values.get(0)));
     }
 
-    interface ValueProvider {
-        Optional<List<String>> provide(Parameter parameter, UriInfo uriInfo);
+    interface Invocation {
+        Object invoke(Object target, Object[] arguments) throws Throwable;
+
+        static Invocation bind(Method method) {
+            GeneratedInvokers.Invoker invoker = GENERATED.get(method.getDeclaringClass()).get(key(method));
+            if (invoker != null) return invoker::invoke;
+            try {
+                MethodHandles.Lookup lookup = MethodHandles.privateLookupIn(method.getDeclaringClass(), MethodHandles.lookup());
+                MethodHandle implementation = lookup.unreflect(method);
+                return generated(lookup, implementation, method).orElseGet(() -> handle(implementation, method));
+            } catch (IllegalAccessException | LambdaConversionException e) {
+                return reflective(method);
+            }
+        }
+
+        private static String key(Method method) {
+            return method.getName() + Arrays.stream(method.getParameterTypes()).map(Class::getCanonicalName).collect(Collectors.joining(",", "(", ")"));
+        }
+
+        static Invocation reflective(Method method) {
+            return (target, arguments) -> {
+                try {
+                    return method.invoke(target, arguments);
+                } catch (InvocationTargetException e) {
+                    throw e.getCause();
+                }
+            };
+        }
+
+        private static Invocation handle(MethodHandle handle, Method method) {
+            if (Modifier.isStatic(method.getModifiers())) handle = MethodHandles.dropArguments(handle, 0, Object.class);
+            MethodHandle spreader = handle.asType(handle.type().generic()).asSpreader(Object[].class, method.getParameterCount());
+            return (target, arguments) -> (Object) spreader.invokeExact(target, arguments);
+        }
+
+        static Optional<Invocation> generated(MethodHandles.Lookup lookup, MethodHandle implementation, Method method) throws LambdaConversionException {
+            if (Modifier.isStatic(method.getModifiers()) || method.getReturnType() == void.class || method.getParameterCount() > 3)
+                return Optional.empty();
+            Class<?> type = switch (method.getParameterCount()) {
+                case 0 -> Function0.class;
+                case 1 -> Function1.class;
+                case 2 -> Function2.class;
+                default -> Function3.class;
+            };
+            Object function;
+            try {
+                function = LambdaMetafactory.metafactory(lookup, "apply", MethodType.methodType(type),
+                        implementation.type().generic(), implementation, implementation.type().wrap()).getTarget().invoke();
+            } catch (LambdaConversionException | RuntimeException | Error e) {
+                throw e;
+            } catch (Throwable e) {
+                throw new LambdaConversionException(e);
+            }
+            return Optional.of(switch (method.getParameterCount()) {
+                case 0 -> invocation((Function0) function);
+                case 1 -> invocation((Function1) function);
+                case 2 -> invocation((Function2) function);
+                default -> invocation((Function3) function);
+            });
+        }
+
+        private static Invocation invocation(Function0 function) {
+            return (target, arguments) -> function.apply(target);
+        }
+
+        private static Invocation invocation(Function1 function) {
+            return (target, arguments) -> function.apply(target, arguments[0]);
+        }
+
+        private static Invocation invocation(Function2 function) {
+            return (target, arguments) -> function.apply(target, arguments[0], arguments[1]);
+        }
+
+        private static Invocation invocation(Function3 function) {
+            return (target, arguments) -> function.apply(target, arguments[0], arguments[1], arguments[2]);
+        }
+    }
+
+    // public so lambdas spun inside resource classes of other packages can implement them
+    public interface Function0 {
+        Object apply(Object target);
+    }
+
+    public interface Function1 {
+        Object apply(Object target, Object first);
+    }
+
+    public interface Function2 {
+        Object apply(Object target, Object first, Object second);
+    }
+
+    public interface Function3 {
+        Object apply(Object target, Object first, Object second, Object third);
+    }
+
+    interface Binding {
+        Object bind(Request request);
+    }
+
+    static class Request {
+        private final ResourceContext resourceContext;
+        private final UriInfo uriInfo;
+        private MultivaluedMap<String, String> queryParameters;
+
+        Request(ResourceContext resourceContext, UriInfo uriInfo) {
+            this.resourceContext = resourceContext;
+            this.uriInfo = uriInfo;
+        }
+
+        MultivaluedMap<String, String> getPathParameters() {
+            return uriInfo.getPathParameters();
+        }
+
+        MultivaluedMap<String, String> getQueryParameters() {
+            if (queryParameters == null) queryParameters = QueryParameters.of(uriInfo);
+            return queryParameters;
+        }
+    }
+
+    private record Source(String name, Function<Request, MultivaluedMap<String, String>> parameters) {
+        List<String> values(Request request) {
+            return parameters.apply(request).get(name);
+        }
     }
 }
@@ -4,10 +4,26 @@ import jakarta.ws.rs.core.GenericEntity;
 import jakarta.ws.rs.core.Response;
 
 import java.lang.annotation.Annotation;
+import java.nio.charset.StandardCharsets;
 
 public abstract class OutBoundResponse extends Response {
     abstract Annotation[] getAnnotations();
 
     abstract GenericEntity getGenericEntity();
 
+    public static EncodedHeader encoded(String value) {
+        return new EncodedHeader(value);
+    }
+
+    public static EncodedHeader encoded(byte[] value) {
+        return new EncodedHeader(new String(value, StandardCharsets.ISO_8859_1));
+    }
+
+    public record EncodedHeader(String value) {
+        @Override
+        public String toString() {
+            return value;
+        }
+    }
+
 }
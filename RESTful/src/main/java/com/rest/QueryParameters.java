@@ -0,0 +1,145 @@
+package com.rest;
+
+import jakarta.ws.rs.core.AbstractMultivaluedMap;
+import jakarta.ws.rs.core.MultivaluedMap;
+import jakarta.ws.rs.core.UriInfo;
+
+import java.net.URI;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.util.*;
+
+class QueryParameters extends AbstractMultivaluedMap<String, String> {
+
+    public QueryParameters(String query) {
+        super(new Index(query == null ? "" : query));
+    }
+
+    static MultivaluedMap<String, String> of(UriInfo uriInfo) {
+        URI requestUri = uriInfo.getRequestUri();
+        if (requestUri != null) return new QueryParameters(requestUri.getRawQuery());
+        return Optional.ofNullable(uriInfo.getQueryParameters()).orElseGet(() -> new QueryParameters(null));
+    }
+
+    private static class Index extends AbstractMap<String, List<String>> {
+        private final String query;
+        private int[] pairs;
+        private int count;
+        private final Map<String, List<String>> found = new HashMap<>();
+        private Map<String, List<String>> all;
+
+        Index(String query) {
+            this.query = query;
+        }
+
+        @Override
+        public List<String> get(Object key) {
+            if (all != null) return all.get(key);
+            if (!(key instanceof String name)) return null;
+            if (found.containsKey(name)) return found.get(name);
+            List<String> values = lookup(name);
+            found.put(name, values);
+            return values;
+        }
+
+        @Override
+        public boolean containsKey(Object key) {
+            return get(key) != null;
+        }
+
+        @Override
+        public List<String> put(String key, List<String> value) {
+            return materialize().put(key, value);
+        }
+
+        @Override
+        public List<String> remove(Object key) {
+            return materialize().remove(key);
+        }
+
+        @Override
+        public Set<Entry<String, List<String>>> entrySet() {
+            return materialize().entrySet();
+        }
+
+        private List<String> lookup(String name) {
+            index();
+            List<String> values = null;
+            for (int i = 0; i < count; i++) {
+                if (!keyEquals(i, name)) continue;
+                if (values == null) values = new ArrayList<>();
+                values.add(value(i));
+            }
+            return values;
+        }
+
+        private Map<String, List<String>> materialize() {
+            if (all != null) return all;
+            index();
+            all = new LinkedHashMap<>();
+            for (int i = 0; i < count; i++) all.computeIfAbsent(key(i), k -> new ArrayList<>()).add(value(i));
+            found.forEach((name, values) -> {
+                if (values != null) all.put(name, values);
+            });
+            return all;
+        }
+
+        private void index() {
+            if (pairs != null) return;
+            pairs = new int[8];
+            int start = 0;
+            int separator = -1;
+            for (int i = 0; i <= query.length(); i++) {
+                char c = i < query.length() ? query.charAt(i) : '&';
+                if (c == '=' && separator < 0) separator = i;
+                if (c != '&') continue;
+                if (i > start && separator != start) add(start, separator < 0 ? i : separator, i);
+                start = i + 1;
+                separator = -1;
+            }
+        }
+
+        private void add(int keyStart, int keyEnd, int end) {
+            if (count * 3 + 3 > pairs.length) pairs = Arrays.copyOf(pairs, pairs.length * 2);
+            pairs[count * 3] = keyStart;
+            pairs[count * 3 + 1] = keyEnd;
+            pairs[count * 3 + 2] = end;
+            count++;
+        }
+
+        private boolean keyEquals(int pair, String name) {
+            int start = pairs[pair * 3];
+            int end = pairs[pair * 3 + 1];
+            if (!isEncoded(start, end)) return end - start == name.length() && query.regionMatches(start, name, 0, name.length());
+            return decode(start, end).equals(name);
+        }
+
+        private String key(int pair) {
+            return decode(pairs[pair * 3], pairs[pair * 3 + 1]);
+        }
+
+        private String value(int pair) {
+            int separator = pairs[pair * 3 + 1];
+            int end = pairs[pair * 3 + 2];
+            return separator == end ? "" : decode(separator + 1, end);
+        }
+
+        private boolean isEncoded(int start, int end) {
+            for (int i = start; i < end; i++) {
+                char c = query.charAt(i);
+                if (c == '%' || c == '+') return true;
+            }
+            return false;
+        }
+
+        private String decode(int start, int end) {
+            String raw = query.substring(start, end);
+            if (!isEncoded(start, end)) return raw;
+            try {
+                return URLDecoder.decode(raw, StandardCharsets.UTF_8);
+            } catch (IllegalArgumentException e) {
+                return raw;
+            }
+        }
+    }
+}
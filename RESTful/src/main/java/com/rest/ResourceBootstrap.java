@@ -0,0 +1,53 @@
+package com.rest;
+
+import java.time.Duration;
+import java.util.*;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.Supplier;
+
+class ResourceBootstrap {
+    private final ForkJoinPool pool;
+
+    public ResourceBootstrap() {
+        this(ForkJoinPool.commonPool());
+    }
+
+    public ResourceBootstrap(ForkJoinPool pool) {
+        this.pool = pool;
+    }
+
+    public Startup start(Runtime runtime, Collection<Class<?>> resourceClasses) {
+        return start(runtime, resourceClasses, Optional.empty());
+    }
+
+    public Startup start(Runtime runtime, Collection<Class<?>> resourceClasses, RouteCache routes) {
+        return start(runtime, resourceClasses, Optional.of(routes));
+    }
+
+    private Startup start(Runtime runtime, Collection<Class<?>> resourceClasses, Optional<RouteCache> routes) {
+        List<Phase> phases = new ArrayList<>();
+        List<ResourceHandler> handlers = timed(phases, "scan", () -> pool.submit(() ->
+                resourceClasses.parallelStream().map(ResourceHandler::new).toList()).join());
+        List<Class<?>> prepared = timed(phases, "prepare", () -> pool.submit(() ->
+                handlers.parallelStream().flatMap(handler -> handler.prepare().stream()).distinct().toList()).join());
+        DefaultResourceRouter router = timed(phases, "route", () ->
+                new DefaultResourceRouter(runtime, List.copyOf(handlers), routes, false));
+        return new Startup(router, prepared.size(), List.copyOf(phases));
+    }
+
+    private static <T> T timed(List<Phase> phases, String name, Supplier<T> phase) {
+        long start = System.nanoTime();
+        T result = phase.get();
+        phases.add(new Phase(name, Duration.ofNanos(System.nanoTime() - start)));
+        return result;
+    }
+
+    public record Startup(DefaultResourceRouter router, int resourceClasses, List<Phase> phases) {
+        public Duration total() {
+            return phases.stream().map(Phase::duration).reduce(Duration.ZERO, Duration::plus);
+        }
+    }
+
+    public record Phase(String name, Duration duration) {
+    }
+}
@@ -9,11 +9,18 @@ import jakarta.ws.rs.core.GenericEntity;
 import jakarta.ws.rs.core.HttpHeaders;
 import jakarta.ws.rs.core.Response;
 
-import java.lang.reflect.InvocationTargetException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
 import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
 import java.lang.reflect.Type;
+import java.nio.file.Files;
 import java.util.*;
 import java.util.function.Function;
+import java.util.stream.BaseStream;
 import java.util.stream.Collectors;
 
 import static com.rest.DefaultResourceMethod.ValueConverter.singleValued;
@@ -38,46 +45,145 @@ public interface ResourceRouter {
 
 class DefaultResourceRouter implements ResourceRouter {
 
-    private Runtime runtime;
-    private List<Resource> rootResources;
+    private final Runtime runtime;
+    private final SegmentTrie<Resource> rootResources;
+    private final Optional<RouteCache> routes;
 
     public DefaultResourceRouter(Runtime runtime, List<Resource> rootResources) {
+        this(runtime, rootResources, Optional.empty());
+    }
+
+    public DefaultResourceRouter(Runtime runtime, List<Resource> rootResources, RouteCache routes) {
+        this(runtime, rootResources, Optional.of(routes));
+    }
+
+    public static DefaultResourceRouter load(Runtime runtime, List<Class<?>> rootResources, java.nio.file.Path snapshot) {
+        Function<Class<?>, ResourceHandler.Metadata> metadata = restore(rootResources, snapshot).orElse(ResourceHandler::metadata);
+        return new DefaultResourceRouter(runtime, rootResources.stream().<Resource>map(root -> new ResourceHandler(root, metadata)).toList());
+    }
+
+    private static Optional<Function<Class<?>, ResourceHandler.Metadata>> restore(List<Class<?>> rootResources, java.nio.file.Path snapshot) {
+        try (InputStream input = Files.newInputStream(snapshot)) {
+            return RouteSnapshot.read(input, DefaultResourceRouter.class.getClassLoader())
+                    .filter(restored -> restored.getRootResources().equals(rootResources))
+                    .map(RouteSnapshot::metadata);
+        } catch (IOException e) {
+            return Optional.empty();
+        }
+    }
+
+    DefaultResourceRouter(Runtime runtime, List<Resource> rootResources, Optional<RouteCache> routes) {
+        this(runtime, rootResources, routes, true);
+    }
+
+    DefaultResourceRouter(Runtime runtime, List<Resource> rootResources, Optional<RouteCache> routes, boolean prepare) {
         this.runtime = runtime;
-        this.rootResources = rootResources;
+        this.rootResources = new SegmentTrie<>(rootResources);
+        this.routes = routes;
+        if (prepare)
+            rootResources.stream().filter(ResourceHandler.class::isInstance).map(ResourceHandler.class::cast).forEach(ResourceHandler::prepare);
     }
 
     @Override
     public OutBoundResponse dispatch(HttpServletRequest req, ResourceContext resourceContext) {
         String path = req.getServletPath();
+        if (!rootResources.mayMatch(path)) return notFound();
         UriInfoBuilder uri = runtime.createUriInfoBuilder(req);
-        Optional<ResourceMethod> method = UriHandlers.mapMatched(path, rootResources, (result, resource) -> findResourceMethod(req, resourceContext, uri, result, resource));
-        if (method.isEmpty()) return (OutBoundResponse) Response.status(Response.Status.NOT_FOUND).build();
+        String[] mediaTypes = Collections.list(req.getHeaders(HttpHeaders.ACCEPT)).toArray(String[]::new);
+        Optional<ResourceMethod> method = routes.map(cache -> findResourceMethod(cache, path, req.getMethod(), mediaTypes, resourceContext, uri))
+                .orElseGet(() -> findResourceMethod(path, req.getMethod(), mediaTypes, resourceContext, uri, Route.Trace.NONE));
+        if (method.isEmpty()) return notFound();
         return (OutBoundResponse) method.map(m -> m.call(resourceContext, uri))
                 .map(entity -> (entity.getEntity() instanceof OutBoundResponse) ? ((OutBoundResponse) entity.getEntity()) : Response.ok(entity).build())
                 .orElseGet(() -> Response.noContent().build());
     }
 
 
-    private Optional<ResourceMethod> findResourceMethod(HttpServletRequest req, ResourceContext resourceContext, UriInfoBuilder uri, Optional<UriTemplate.MatchResult> matched, Resource handler) {
-        return handler.match(matched.get(), req.getMethod(), Collections.list(req.getHeaders(HttpHeaders.ACCEPT)).toArray(String[]::new), resourceContext,
-                uri);
+    private static OutBoundResponse notFound() {
+        return (OutBoundResponse) Response.status(Response.Status.NOT_FOUND).build();
+    }
+
+    private Optional<ResourceMethod> findResourceMethod(RouteCache cache, String path, String httpMethod, String[] mediaTypes, ResourceContext resourceContext, UriInfoBuilder uri) {
+        RouteCache.Key key = new RouteCache.Key(httpMethod, path, List.of(mediaTypes));
+        Optional<Route> route = cache.get(key);
+        if (route.isPresent()) return route.get().replay(httpMethod, mediaTypes, resourceContext, uri);
+        Route.Recorder recorder = new Route.Recorder();
+        Optional<ResourceMethod> method = findResourceMethod(path, httpMethod, mediaTypes, resourceContext, uri, recorder);
+        method.flatMap(recorder::complete).ifPresent(r -> cache.put(key, r));
+        return method;
+    }
+
+    private Optional<ResourceMethod> findResourceMethod(String path, String httpMethod, String[] mediaTypes, ResourceContext resourceContext, UriInfoBuilder uri, Route.Trace trace) {
+        return rootResources.mapMatched(path, (result, resource) -> {
+            if (resource instanceof ResourceHandler handler)
+                return handler.match(result.get(), httpMethod, mediaTypes, resourceContext, uri, trace);
+            trace.abandon();
+            return resource.match(result.get(), httpMethod, mediaTypes, resourceContext, uri);
+        });
     }
 
 }
 
 class ResourceMethods {
 
-    private Map<String, List<ResourceRouter.ResourceMethod>> methods;
+    private static final List<String> ALLOWABLE = List.of(HttpMethod.GET, HttpMethod.HEAD, HttpMethod.OPTIONS, HttpMethod.PUT, HttpMethod.POST, HttpMethod.DELETE, HttpMethod.PATCH);
+
+    private Map<String, UriHandlers.Ordered<ResourceRouter.ResourceMethod>> methods;
+    private UriHandlers.Ordered<Endpoint> endpoints;
 
     public ResourceMethods(Method[] methods) {
-        this.methods = getResourceMethods(methods);
+        this(RouteTable.scan(methods));
+    }
+
+    ResourceMethods(List<RouteTable.Entry> routes) {
+        this(routes, RouteAnalysis.NONE);
+    }
+
+    ResourceMethods(List<RouteTable.Entry> routes, RouteAnalysis analysis) {
+        List<DefaultResourceMethod> resourceMethods = routes.stream().filter(entry -> !entry.route().isLocator())
+                .map(entry -> new DefaultResourceMethod(entry, analysis.template(entry.route().path()))).toList();
+        this.methods = getResourceMethods(resourceMethods, analysis);
+        this.endpoints = getEndpoints(resourceMethods, analysis);
+    }
+
+    private static UriHandlers.Ordered<Endpoint> getEndpoints(List<DefaultResourceMethod> methods, RouteAnalysis analysis) {
+        Map<String, Set<String>> verbs = new LinkedHashMap<>();
+        methods.stream().filter(method -> ALLOWABLE.contains(method.getHttpMethod()))
+                .forEach(method -> verbs.computeIfAbsent(method.getPath(), path -> new HashSet<>()).add(method.getHttpMethod()));
+        Map<String, PathTemplate> templates = new LinkedHashMap<>();
+        verbs.keySet().forEach(path -> templates.put(path, analysis.template(path)));
+        return analysis.order("endpoints", verbs.keySet().stream().map(path -> new Endpoint(templates.get(path), allow(verbs.entrySet().stream()
+                .filter(other -> other.getKey().equals(path) || covers(templates.get(other.getKey()), path, templates.get(path)))
+                .flatMap(other -> other.getValue().stream()).collect(Collectors.toSet())))).toList());
+    }
+
+    // every path matching the template also matches other, so OPTIONS on it offers the verbs of both
+    private static boolean covers(PathTemplate other, String path, PathTemplate template) {
+        if (template.getVariables().isEmpty()) return other.match(path).filter(r -> r.getRemaining() == null).isPresent();
+        if (template.getSegments().isEmpty() || other.getSegments().isEmpty()) return false;
+        List<PathTemplate.Segment> segments = template.getSegments().get();
+        List<PathTemplate.Segment> covering = other.getSegments().get();
+        if (segments.size() != covering.size()) return false;
+        for (int i = 0; i < segments.size(); i++) {
+            PathTemplate.Segment segment = segments.get(i);
+            boolean any = covering.get(i).kind() == PathTemplate.Segment.Kind.PARAMETER && !"".equals(segment.value());
+            if (!any && !covering.get(i).equals(segment)) return false;
+        }
+        return true;
+    }
+
+    private static String allow(Set<String> verbs) {
+        Set<String> allowed = new HashSet<>(verbs);
+        allowed.add(HttpMethod.OPTIONS);
+        if (allowed.contains(HttpMethod.GET)) allowed.add(HttpMethod.HEAD);
+        return ALLOWABLE.stream().filter(allowed::contains).collect(Collectors.joining(","));
     }
 
-    private static Map<String, List<ResourceRouter.ResourceMethod>> getResourceMethods(Method[] methods) {
-        return Arrays.stream(methods).filter(m -> Arrays.stream(m.getAnnotations())
-                        .anyMatch(a -> a.annotationType().isAnnotationPresent(HttpMethod.class)))
-                .map(DefaultResourceMethod::new)
-                .collect(Collectors.groupingBy(ResourceRouter.ResourceMethod::getHttpMethod));
+    private static Map<String, UriHandlers.Ordered<ResourceRouter.ResourceMethod>> getResourceMethods(List<DefaultResourceMethod> methods, RouteAnalysis analysis) {
+        Map<String, UriHandlers.Ordered<ResourceRouter.ResourceMethod>> ordered = new HashMap<>();
+        methods.stream().collect(Collectors.groupingBy(ResourceRouter.ResourceMethod::getHttpMethod, Collectors.<ResourceRouter.ResourceMethod>toList()))
+                .forEach((httpMethod, group) -> ordered.put(httpMethod, analysis.order("methods " + httpMethod, group)));
+        return ordered;
     }
 
 
@@ -87,33 +193,46 @@ class ResourceMethods {
 
     private Optional<ResourceRouter.ResourceMethod> alternative(String path, String method) {
         if (HttpMethod.HEAD.equals(method)) return findMethod(path, HttpMethod.GET).map(HeadResourceMethod::new);
-        if (HttpMethod.OPTIONS.equals(method)) return Optional.of(new OptionResourceMethod(path));
+        if (HttpMethod.OPTIONS.equals(method)) return Optional.of(new OptionResourceMethod(path, findAllowedMethods(path)));
         return Optional.empty();
     }
 
+    Set<String> getHttpMethods() {
+        return methods.keySet();
+    }
+
+    UriHandlers.Ordered<ResourceRouter.ResourceMethod> getMethods(String httpMethod) {
+        return methods.get(httpMethod);
+    }
+
     private Optional<ResourceRouter.ResourceMethod> findMethod(String path, String httpMethod) {
         return Optional.ofNullable(methods.get(httpMethod)).flatMap(methods -> UriHandlers.match(path, methods, r -> r.getRemaining() == null));
     }
 
-    class OptionResourceMethod implements ResourceRouter.ResourceMethod {
+    private String findAllowedMethods(String path) {
+        return UriHandlers.match(path, endpoints, r -> r.getRemaining() == null).map(Endpoint::allow).orElse(HttpMethod.OPTIONS);
+    }
+
+    private record Endpoint(PathTemplate template, String allow) implements UriHandler {
+        @Override
+        public UriTemplate getUriTemplate() {
+            return template;
+        }
+    }
+
+    static class OptionResourceMethod implements ResourceRouter.ResourceMethod {
         private String path;
+        private String allow;
 
-        public OptionResourceMethod(String path) {
+        public OptionResourceMethod(String path, String allow) {
             this.path = path;
+            this.allow = allow;
         }
 
         @Override
         public GenericEntity<?> call(ResourceContext resourceContext, UriInfoBuilder builder) {
 
-            return new GenericEntity<>(Response.noContent().allow(findAllowedMethods()).build(), Response.class);
-        }
-
-        private Set<String> findAllowedMethods() {
-            Set<String> allowed = List.of(HttpMethod.GET, HttpMethod.HEAD, HttpMethod.OPTIONS, HttpMethod.PUT, HttpMethod.POST, HttpMethod.DELETE, HttpMethod.PATCH).stream()
-                    .filter(method -> findMethod(path, method).isPresent()).collect(Collectors.toSet());
-            allowed.add(HttpMethod.OPTIONS);
-            if (allowed.contains(HttpMethod.GET)) allowed.add(HttpMethod.HEAD);
-            return allowed;
+            return new GenericEntity<>(Response.noContent().header(HttpHeaders.ALLOW, allow).build(), Response.class);
         }
 
         @Override
@@ -131,32 +250,53 @@ class ResourceMethods {
 
 class DefaultResourceMethod implements ResourceRouter.ResourceMethod {
     private String httpMethod;
+    private String path;
     private PathTemplate uriTemplate;
     private Method method;
+    private MethodInvoker invoker;
 
     public DefaultResourceMethod(Method method) {
-        this.method = method;
-        this.uriTemplate = new PathTemplate(Optional.ofNullable(method.getAnnotation(Path.class)).map(Path::value).orElse(""));
-        this.httpMethod = Arrays.stream(method.getAnnotations()).filter(a -> a.annotationType().isAnnotationPresent(HttpMethod.class))
-                .findFirst().get().annotationType().getAnnotation(HttpMethod.class).value();
+        this(new RouteTable.Entry(method, RouteTable.route(method).filter(route -> !route.isLocator()).orElseThrow()));
+    }
+
+    DefaultResourceMethod(RouteTable.Entry entry) {
+        this(entry, new PathTemplate(entry.route().path()));
+    }
+
+    DefaultResourceMethod(RouteTable.Entry entry, PathTemplate uriTemplate) {
+        this.method = entry.method();
+        this.invoker = new MethodInvoker(method, entry.route().parameters());
+        this.path = entry.route().path();
+        this.uriTemplate = uriTemplate;
+        this.httpMethod = entry.route().httpMethod();
     }
 
     @Override
     public GenericEntity<?> call(ResourceContext resourceContext, UriInfoBuilder builder) {
-        Object result = MethodInvoker.invoke(method, resourceContext, builder);
+        Object result = invoker.invoke(resourceContext, builder);
         return result != null ? new GenericEntity<>(result, method.getGenericReturnType()) : null;
     }
 
 
     class PrimitiveConverter {
-        private static Map<Type, ValueConverter<Object>> primitive = Map.of(int.class, singleValued(Integer::parseInt),
-                byte.class, singleValued(Byte::parseByte),
-                char.class, singleValued(s -> s.charAt(0)),
-                short.class, singleValued(Short::parseShort),
-                String.class, singleValued(s -> s),
-                boolean.class, singleValued(Boolean::parseBoolean),
-                float.class, singleValued(Float::parseFloat),
-                double.class, singleValued(Double::parseDouble));
+        private static Map<Type, ValueConverter<Object>> primitive = Map.ofEntries(
+                Map.entry(int.class, singleValued(Integer::parseInt)),
+                Map.entry(long.class, singleValued(Long::parseLong)),
+                Map.entry(byte.class, singleValued(Byte::parseByte)),
+                Map.entry(char.class, singleValued(s -> s.charAt(0))),
+                Map.entry(short.class, singleValued(Short::parseShort)),
+                Map.entry(String.class, singleValued(s -> s)),
+                Map.entry(boolean.class, singleValued(Boolean::parseBoolean)),
+                Map.entry(float.class, singleValued(Float::parseFloat)),
+                Map.entry(double.class, singleValued(Double::parseDouble)),
+                Map.entry(Integer.class, singleValued(Integer::valueOf)),
+                Map.entry(Long.class, singleValued(Long::valueOf)),
+                Map.entry(Byte.class, singleValued(Byte::valueOf)),
+                Map.entry(Character.class, singleValued(s -> s.charAt(0))),
+                Map.entry(Short.class, singleValued(Short::valueOf)),
+                Map.entry(Boolean.class, singleValued(Boolean::valueOf)),
+                Map.entry(Float.class, singleValued(Float::valueOf)),
+                Map.entry(Double.class, singleValued(Double::valueOf)));
 
         static Optional<Object> convert(Class<?> converter, List<String> values) {
             return Optional.ofNullable(primitive.get(converter)).map(it -> it.fromString(values));
@@ -186,6 +326,10 @@ class DefaultResourceMethod implements ResourceRouter.ResourceMethod {
     public String getHttpMethod() {
         return httpMethod;
     }
+
+    String getPath() {
+        return path;
+    }
 }
 
 class HeadResourceMethod implements ResourceRouter.ResourceMethod {
@@ -197,7 +341,8 @@ class HeadResourceMethod implements ResourceRouter.ResourceMethod {
 
     @Override
     public GenericEntity<?> call(ResourceContext resourceContext, UriInfoBuilder builder) {
-        resourceMethod.call(resourceContext, builder);
+        GenericEntity<?> entity = resourceMethod.call(resourceContext, builder);
+        if (entity != null && entity.getEntity() instanceof BaseStream<?, ?> stream) stream.close();
         return null;
     }
 
@@ -219,52 +364,121 @@ class HeadResourceMethod implements ResourceRouter.ResourceMethod {
 
 
 class ConverterConstructor {
+    private static final ClassValue<Optional<MethodHandle>> CONSTRUCTORS = new ClassValue<>() {
+        @Override
+        protected Optional<MethodHandle> computeValue(Class<?> converter) {
+            try {
+                return Optional.of(MethodHandles.lookup().findConstructor(converter, MethodType.methodType(void.class, String.class))
+                        .asType(MethodType.methodType(Object.class, String.class)));
+            } catch (NoSuchMethodException | IllegalAccessException e) {
+                return Optional.empty();
+            }
+        }
+    };
 
     public static Optional<Object> convert(Class<?> converter, String value) {
+        return CONSTRUCTORS.get(converter).flatMap(constructor -> invoke(constructor, value));
+    }
+
+    static Optional<Object> invoke(MethodHandle converter, String value) {
         try {
-            return Optional.of(converter.getConstructor(String.class).newInstance(value));
-        } catch (InstantiationException | IllegalAccessException | InvocationTargetException | NoSuchMethodException e) {
+            return Optional.ofNullable((Object) converter.invokeExact(value));
+        } catch (Throwable e) {
             return Optional.empty();
         }
     }
 }
 
 class ConverterFactory {
+    private static final ClassValue<Optional<MethodHandle>> FACTORIES = new ClassValue<>() {
+        @Override
+        protected Optional<MethodHandle> computeValue(Class<?> converter) {
+            try {
+                Method factory = converter.getMethod("valueOf", String.class);
+                if (!Modifier.isStatic(factory.getModifiers())) return Optional.empty();
+                return Optional.of(MethodHandles.lookup().unreflect(factory).asType(MethodType.methodType(Object.class, String.class)));
+            } catch (NoSuchMethodException | IllegalAccessException e) {
+                return Optional.empty();
+            }
+        }
+    };
 
     public static Optional<Object> convert(Class<?> converter, String value) {
-        try {
-            return Optional.of(converter.getMethod("valueOf", String.class).invoke(null, value));
-        } catch (IllegalAccessException | InvocationTargetException | NoSuchMethodException e) {
-            return Optional.empty();
-        }
+        return FACTORIES.get(converter).flatMap(factory -> ConverterConstructor.invoke(factory, value));
     }
 }
 
 
 class SubResourceLocators {
 
-    private final List<ResourceRouter.Resource> subResourceLocators;
+    private final UriHandlers.Ordered<SubResourceLocator> subResourceLocators;
 
     public SubResourceLocators(Method[] methods) {
-        subResourceLocators = Arrays.stream(methods).filter(m -> m.isAnnotationPresent(Path.class) &&
-                        Arrays.stream(m.getAnnotations()).noneMatch(a -> a.annotationType().isAnnotationPresent(HttpMethod.class)))
-                .map(m -> (ResourceRouter.Resource) new SubResourceLocator(m))
-                .toList();
+        this(RouteTable.scan(methods));
+    }
+
+    SubResourceLocators(List<RouteTable.Entry> routes) {
+        this(routes, RouteAnalysis.NONE);
+    }
 
+    SubResourceLocators(List<RouteTable.Entry> routes, RouteAnalysis analysis) {
+        subResourceLocators = analysis.order("locators", routes.stream().filter(entry -> entry.route().isLocator())
+                .map(entry -> new SubResourceLocator(entry, analysis.template(entry.route().path())))
+                .toList());
     }
 
     public Optional<ResourceRouter.ResourceMethod> findResourceMethods(String path, String method, String[] mediaTypes, ResourceContext resourceContext, UriInfoBuilder uriInfoBuilder) {
-        return UriHandlers.mapMatched(path, subResourceLocators, (result, locator) ->
-                locator.match(result.get(), method, mediaTypes, resourceContext, uriInfoBuilder));
+        return findResourceMethods(path, method, mediaTypes, resourceContext, uriInfoBuilder, Route.Trace.NONE, () -> {
+        }, ResourceHandler::metadata);
+    }
+
+    Optional<ResourceRouter.ResourceMethod> findResourceMethods(String path, String method, String[] mediaTypes, ResourceContext resourceContext, UriInfoBuilder uriInfoBuilder,
+                                                                Route.Trace trace, Runnable located, Function<Class<?>, ResourceHandler.Metadata> metadata) {
+        return UriHandlers.mapMatched(path, subResourceLocators, (result, locator) -> {
+            located.run();
+            return locator.match(result.get(), method, mediaTypes, resourceContext, uriInfoBuilder, trace, metadata);
+        });
+    }
+
+    UriHandlers.Ordered<SubResourceLocator> getLocators() {
+        return subResourceLocators;
+    }
+
+    List<Class<?>> getStaticTypes() {
+        return subResourceLocators.handlers().stream().flatMap(locator -> locator.getStaticType().stream()).toList();
     }
 
     static class SubResourceLocator implements ResourceRouter.Resource {
+        private String path;
         private PathTemplate uriTemplate;
         private Method method;
+        private Optional<Class<?>> staticType;
+        private MethodInvoker invoker;
 
         public SubResourceLocator(Method method) {
-            this.method = method;
-            this.uriTemplate = new PathTemplate(method.getAnnotation(Path.class).value());
+            this(new RouteTable.Entry(method, RouteTable.route(method).filter(GeneratedRoutes.Route::isLocator).orElseThrow()));
+        }
+
+        SubResourceLocator(RouteTable.Entry entry) {
+            this(entry, new PathTemplate(entry.route().path()));
+        }
+
+        SubResourceLocator(RouteTable.Entry entry, PathTemplate uriTemplate) {
+            this.method = entry.method();
+            this.invoker = new MethodInvoker(method, entry.route().parameters());
+            this.path = entry.route().path();
+            this.uriTemplate = uriTemplate;
+            this.staticType = Optional.<Class<?>>of(method.getReturnType())
+                    .filter(type -> type != Object.class && !type.isPrimitive() && !type.isArray()
+                            && !type.isInterface() && !Modifier.isAbstract(type.getModifiers()));
+        }
+
+        Optional<Class<?>> getStaticType() {
+            return staticType;
+        }
+
+        String getPath() {
+            return path;
         }
 
         @Override
@@ -279,10 +493,29 @@ class SubResourceLocators {
 
         @Override
         public Optional<ResourceRouter.ResourceMethod> match(UriTemplate.MatchResult result, String httpMethod, String[] mediaTypes, ResourceContext resourceContext, UriInfoBuilder builder) {
+            return match(result, httpMethod, mediaTypes, resourceContext, builder, Route.Trace.NONE, ResourceHandler::metadata);
+        }
+
+        Optional<ResourceRouter.ResourceMethod> match(UriTemplate.MatchResult result, String httpMethod, String[] mediaTypes, ResourceContext resourceContext, UriInfoBuilder builder, Route.Trace trace,
+                                                      Function<Class<?>, ResourceHandler.Metadata> metadata) {
+            Map<String, String> parameters = result.getMatchedPathParameters();
+            String remaining = ResourceHandler.remaining(result);
+            Object subResource = locate(parameters, resourceContext, builder);
+            Class<?> located = subResource.getClass();
+            trace.add(replay -> {
+                Object resource = locate(parameters, replay.getResourceContext(), replay.getBuilder());
+                if (resource.getClass() != located)
+                    return new ResourceHandler(resource, uriTemplate, metadata).match(remaining, replay.getHttpMethod(), replay.getMediaTypes(), replay.getResourceContext(), replay.getBuilder(), Route.Trace.NONE);
+                replay.getBuilder().addMatchedResource(resource);
+                return replay.proceed();
+            });
+            return new ResourceHandler(subResource, uriTemplate, metadata).match(remaining, httpMethod, mediaTypes, resourceContext, builder, trace);
+        }
+
+        Object locate(Map<String, String> parameters, ResourceContext resourceContext, UriInfoBuilder builder) {
             try {
-                builder.addMatchedPathParameters(result.getMatchedPathParameters());
-                Object subResource = MethodInvoker.invoke(method, resourceContext, builder);
-                return new ResourceHandler(subResource, uriTemplate).match(excludePathParameters(result), httpMethod, mediaTypes, resourceContext, builder);
+                builder.addMatchedPathParameters(parameters);
+                return invoker.invoke(resourceContext, builder);
             } catch (WebApplicationException e) {
                 throw e;
             } catch (Exception e) {
@@ -290,41 +523,33 @@ class SubResourceLocators {
             }
         }
 
-        private UriTemplate.MatchResult excludePathParameters(UriTemplate.MatchResult result) {
-            return new UriTemplate.MatchResult() {
-                @Override
-                public String getMatched() {
-                    return result.getMatched();
-                }
-
-                @Override
-                public String getRemaining() {
-                    return result.getRemaining();
-                }
-
-                @Override
-                public Map<String, String> getMatchedPathParameters() {
-                    return new HashMap<>();
-                }
-
-                @Override
-                public int compareTo(UriTemplate.MatchResult o) {
-                    return result.compareTo(o);
-                }
-            };
-        }
-
     }
 }
 
 class ResourceHandler implements ResourceRouter.Resource {
+    private static final ClassValue<Metadata> METADATA = new ClassValue<>() {
+        @Override
+        protected Metadata computeValue(Class<?> resourceClass) {
+            return Metadata.of(RouteTable.of(resourceClass));
+        }
+    };
+
+    private Class<?> resourceClass;
     private ResourceMethods resourceMethods;
     private UriTemplate uriTemplate;
     private SubResourceLocators subResourceLocators;
     private Function<ResourceContext, Object> resource;
+    private boolean lazy;
+    private Function<Class<?>, Metadata> metadata;
+    // written by prepare(), possibly on a bootstrap worker thread, and read by every request thread
+    private volatile Optional<SubResourceRoutes> subResourceRoutes = Optional.empty();
 
     public ResourceHandler(Class<?> resourceClass) {
-        this(resourceClass, new PathTemplate(getTemplate(resourceClass)), rc -> rc.getResource(resourceClass));
+        this(resourceClass, new PathTemplate(getTemplate(resourceClass)), rc -> rc.getResource(resourceClass), true, ResourceHandler::metadata);
+    }
+
+    ResourceHandler(Class<?> resourceClass, Function<Class<?>, Metadata> metadata) {
+        this(resourceClass, new PathTemplate(getTemplate(resourceClass)), rc -> rc.getResource(resourceClass), true, metadata);
     }
 
     private static String getTemplate(Class<?> resourceClass) {
@@ -333,24 +558,74 @@ class ResourceHandler implements ResourceRouter.Resource {
     }
 
     public ResourceHandler(Object resource, UriTemplate uriTemplate) {
-        this(resource.getClass(), uriTemplate, rc -> resource);
+        this(resource, uriTemplate, ResourceHandler::metadata);
     }
 
-    private ResourceHandler(Class<?> resourceClass, UriTemplate uriTemplate, Function<ResourceContext, Object> resource) {
+    ResourceHandler(Object resource, UriTemplate uriTemplate, Function<Class<?>, Metadata> metadata) {
+        this(resource.getClass(), uriTemplate, rc -> resource, false, metadata);
+    }
+
+    private ResourceHandler(Class<?> resourceClass, UriTemplate uriTemplate, Function<ResourceContext, Object> resource, boolean lazy,
+                            Function<Class<?>, Metadata> metadata) {
+        Metadata resolved = metadata.apply(resourceClass);
+        this.resourceClass = resourceClass;
         this.uriTemplate = uriTemplate;
-        this.resourceMethods = new ResourceMethods(resourceClass.getMethods());
-        this.subResourceLocators = new SubResourceLocators(resourceClass.getMethods());
+        this.resourceMethods = resolved.resourceMethods();
+        this.subResourceLocators = resolved.subResourceLocators();
         this.resource = resource;
+        this.lazy = lazy;
+        this.metadata = metadata;
+    }
+
+    static Metadata metadata(Class<?> resourceClass) {
+        return METADATA.get(resourceClass);
+    }
+
+    Set<Class<?>> prepare() {
+        if (subResourceRoutes.isEmpty()) subResourceRoutes = SubResourceRoutes.of(subResourceLocators, metadata);
+        Set<Class<?>> prepared = new LinkedHashSet<>();
+        Deque<Class<?>> pending = new ArrayDeque<>(List.of(resourceClass));
+        while (!pending.isEmpty()) {
+            Class<?> current = pending.poll();
+            if (prepared.add(current)) pending.addAll(metadata.apply(current).subResourceLocators().getStaticTypes());
+        }
+        return prepared;
     }
 
     @Override
     public Optional<ResourceRouter.ResourceMethod> match(UriTemplate.MatchResult result, String httpMethod, String[] mediaTypes, ResourceContext resourceContext, UriInfoBuilder builder) {
-        builder.addMatchedResource(resource.apply(resourceContext));
-        builder.addMatchedPathParameters(result.getMatchedPathParameters());
-        String remaining = Optional.ofNullable(result.getRemaining()).orElse("");
-        return resourceMethods.findResourceMethods(remaining, httpMethod)
-                .or(() ->
-                        subResourceLocators.findResourceMethods(remaining, httpMethod, mediaTypes, resourceContext, builder));
+        return match(result, httpMethod, mediaTypes, resourceContext, builder, Route.Trace.NONE);
+    }
+
+    Optional<ResourceRouter.ResourceMethod> match(UriTemplate.MatchResult result, String httpMethod, String[] mediaTypes, ResourceContext resourceContext, UriInfoBuilder builder, Route.Trace trace) {
+        Map<String, String> parameters = result.getMatchedPathParameters();
+        builder.addMatchedPathParameters(parameters);
+        trace.add(replay -> {
+            replay.getBuilder().addMatchedPathParameters(parameters);
+            if (replay.requiresResource()) replay.getBuilder().addMatchedResource(resource.apply(replay.getResourceContext()));
+            return replay.proceed();
+        });
+        return match(remaining(result), httpMethod, mediaTypes, resourceContext, builder, trace);
+    }
+
+    Optional<ResourceRouter.ResourceMethod> match(String remaining, String httpMethod, String[] mediaTypes, ResourceContext resourceContext, UriInfoBuilder builder, Route.Trace trace) {
+        if (!lazy) builder.addMatchedResource(resource.apply(resourceContext));
+        Runnable enter = lazy ? () -> builder.addMatchedResource(resource.apply(resourceContext)) : () -> {
+        };
+        Optional<ResourceRouter.ResourceMethod> method = resourceMethods.findResourceMethods(remaining, httpMethod);
+        method.filter(ResourceHandler::requiresResource).ifPresent(m -> enter.run());
+        Optional<SubResourceRoutes> routes = subResourceRoutes;
+        if (routes.isPresent())
+            return method.or(() -> routes.get().findResourceMethods(remaining, httpMethod, mediaTypes, resourceContext, builder, trace, enter));
+        return method.or(() -> subResourceLocators.findResourceMethods(remaining, httpMethod, mediaTypes, resourceContext, builder, trace, enter, metadata));
+    }
+
+    static boolean requiresResource(ResourceRouter.ResourceMethod method) {
+        return !(method instanceof ResourceMethods.OptionResourceMethod);
+    }
+
+    static String remaining(UriTemplate.MatchResult result) {
+        return Optional.ofNullable(result.getRemaining()).orElse("");
     }
 
     @Override
@@ -358,5 +633,18 @@ class ResourceHandler implements ResourceRouter.Resource {
         return uriTemplate;
     }
 
+    Optional<SubResourceRoutes> getSubResourceRoutes() {
+        return subResourceRoutes;
+    }
+
+    record Metadata(ResourceMethods resourceMethods, SubResourceLocators subResourceLocators) {
+        static Metadata of(List<RouteTable.Entry> routes) {
+            return of(routes, RouteAnalysis.NONE);
+        }
+
+        static Metadata of(List<RouteTable.Entry> routes, RouteAnalysis analysis) {
+            return new Metadata(new ResourceMethods(routes, analysis), new SubResourceLocators(routes, analysis));
+        }
+    }
 }
 
@@ -1,63 +1,562 @@
 package com.rest;
 
+import jakarta.servlet.AsyncContext;
+import jakarta.servlet.AsyncEvent;
+import jakarta.servlet.AsyncListener;
 import jakarta.servlet.ServletException;
+import jakarta.servlet.ServletOutputStream;
+import jakarta.servlet.WriteListener;
 import jakarta.servlet.http.HttpServlet;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
 import jakarta.ws.rs.WebApplicationException;
 import jakarta.ws.rs.core.GenericEntity;
+import jakarta.ws.rs.core.MediaType;
+import jakarta.ws.rs.core.Response;
+import jakarta.ws.rs.core.StreamingOutput;
 import jakarta.ws.rs.ext.ExceptionMapper;
 import jakarta.ws.rs.ext.MessageBodyWriter;
 import jakarta.ws.rs.ext.Providers;
 import jakarta.ws.rs.ext.RuntimeDelegate;
 
 import java.io.IOException;
+import java.io.OutputStream;
+import java.lang.annotation.Annotation;
+import java.lang.reflect.ParameterizedType;
+import java.lang.reflect.Type;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BooleanSupplier;
 import java.util.function.Supplier;
+import java.util.stream.BaseStream;
+import java.util.stream.Stream;
 
 public class ResourceServlet extends HttpServlet {
+    private static final int FLUSH_INTERVAL = 100;
 
     private Runtime runtime;
     private Providers providers;
+    private MessageBodyWriters writers;
+    private HeaderDelegates headers = new HeaderDelegates();
+    private Optional<Executor> executor;
+    private boolean nonBlocking;
 
     public ResourceServlet(Runtime runtime) {
+        this(runtime, Optional.empty(), false);
+    }
+
+    public ResourceServlet(Runtime runtime, Executor executor) {
+        this(runtime, Optional.of(executor), false);
+    }
+
+    private ResourceServlet(Runtime runtime, Optional<Executor> executor, boolean nonBlocking) {
         this.runtime = runtime;
         this.providers = runtime.getProviders();
+        this.writers = new MessageBodyWriters(providers);
+        this.executor = executor;
+        this.nonBlocking = nonBlocking;
+    }
+
+    public ResourceServlet nonBlocking() {
+        return new ResourceServlet(runtime, executor, true);
+    }
+
+    public static Optional<Executor> virtualThreadPerRequest() {
+        try {
+            return Optional.of((Executor) Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null));
+        } catch (ReflectiveOperationException | UnsupportedOperationException e) {
+            return Optional.empty();
+        }
     }
 
     @Override
     protected void service(HttpServletRequest req, HttpServletResponse resp) throws ServletException, IOException {
         ResourceRouter router = runtime.getResourceRouter();
-        respond(resp, () -> router.dispatch(req, runtime.createResourceContext(req, resp)));
+        Exchange exchange = new Exchange(req, resp);
+        Supplier<OutBoundResponse> dispatch = () -> router.dispatch(req, runtime.createResourceContext(req, resp));
+        if (executor.isEmpty()) {
+            respond(exchange, dispatch);
+            return;
+        }
+        exchange.suspend();
+        exchange.onTimeout(() -> respond(exchange, ResourceServlet::unavailable));
+        Runnable task = () -> respond(exchange, dispatch, exchange::resume);
+        try {
+            executor.get().execute(task);
+        } catch (RejectedExecutionException e) {
+            task.run();
+        }
+    }
+
+    private void respond(Exchange exchange, Supplier<OutBoundResponse> supplier) {
+        respond(exchange, supplier, () -> true);
     }
 
-    private void respond(HttpServletResponse resp, Supplier<OutBoundResponse> supplier) {
+    private void respond(Exchange exchange, Supplier<OutBoundResponse> supplier, BooleanSupplier claim) {
+        boolean claimed = false;
         try {
-            respond(resp, supplier.get());
-        } catch (WebApplicationException exception) {
-            respond(resp, () -> (OutBoundResponse) exception.getResponse());
+            OutBoundResponse response = supplier.get();
+            Optional<CompletionStage<?>> stage = stage(response);
+            if (stage.isPresent()) {
+                resume(exchange, response, stage.get());
+                return;
+            }
+            if (!(claimed = claim.getAsBoolean())) return;
+            respond(exchange, response);
         } catch (Throwable throwable) {
-            respond(resp, () -> from(throwable));
+            if (!claimed && !claim.getAsBoolean()) return;
+            if (exchange.resp.isCommitted()) exchange.abort(throwable);
+            else if (throwable instanceof WebApplicationException exception)
+                respond(exchange, () -> (OutBoundResponse) exception.getResponse());
+            else respond(exchange, () -> from(throwable));
         }
     }
 
-    private void respond(HttpServletResponse resp, OutBoundResponse response) throws IOException {
+    private static Optional<CompletionStage<?>> stage(OutBoundResponse response) {
+        GenericEntity entity = response.getGenericEntity();
+        if (entity != null && entity.getEntity() instanceof CompletionStage<?> stage) return Optional.of(stage);
+        return Optional.empty();
+    }
+
+    private void resume(Exchange exchange, OutBoundResponse pending, CompletionStage<?> stage) {
+        exchange.suspend();
+        exchange.onTimeout(() -> respond(exchange, ResourceServlet::unavailable));
+        stage.whenComplete((result, error) -> {
+            if (exchange.resume()) respond(exchange, () -> error != null ? from(unwrap(error)) : completed(pending, result));
+        });
+    }
+
+    private static OutBoundResponse unavailable() {
+        return (OutBoundResponse) Response.status(Response.Status.SERVICE_UNAVAILABLE).build();
+    }
+
+    private static OutBoundResponse completed(OutBoundResponse pending, Object result) {
+        if (result instanceof OutBoundResponse response) return response;
+        Response.ResponseBuilder builder = Response.fromResponse(pending);
+        if (result == null)
+            return (OutBoundResponse) (pending.getStatus() == Response.Status.OK.getStatusCode() ? builder.status(Response.Status.NO_CONTENT) : builder).entity(null).build();
+        return (OutBoundResponse) builder.entity(new GenericEntity<>(result, completedType(pending.getGenericEntity().getType(), result))).build();
+    }
+
+    private static Type completedType(Type stage, Object result) {
+        if (stage instanceof ParameterizedType type) {
+            Type completed = type.getActualTypeArguments()[0];
+            if (completed instanceof Class<?> || completed instanceof ParameterizedType) return completed;
+        }
+        return result.getClass();
+    }
+
+    private static Throwable unwrap(Throwable error) {
+        return error instanceof CompletionException && error.getCause() != null ? error.getCause() : error;
+    }
+
+    private void respond(Exchange exchange, OutBoundResponse response) throws IOException {
+        HttpServletResponse resp = exchange.resp;
         resp.setStatus(response.getStatus());
         for (String name : response.getHeaders().keySet()) {
-            for (Object value : response.getHeaders().get(name)) {
-                RuntimeDelegate.HeaderDelegate headerDelegate = RuntimeDelegate.getInstance().createHeaderDelegate(value.getClass());
-                resp.addHeader(name, headerDelegate.toString(value));
-            }
+            for (Object value : response.getHeaders().get(name)) resp.addHeader(name, headers.toString(value));
         }
 
         GenericEntity entity = response.getGenericEntity();
-        if (entity != null) {
-            MessageBodyWriter writer = providers.getMessageBodyWriter(entity.getRawType(), entity.getType(), response.getAnnotations(), response.getMediaType());
+        if (entity == null) {
+            exchange.complete();
+            return;
+        }
+        if (entity.getEntity() instanceof Flow.Publisher<?> publisher) {
+            publish(exchange, publisher);
+            return;
+        }
+        if (entity.getEntity() instanceof StreamingOutput streaming) {
+            streaming.write(resp.getOutputStream());
+            exchange.complete();
+            return;
+        }
+        Optional<Iterator<?>> elements = elements(entity.getEntity());
+        if (elements.isPresent()) {
+            stream(exchange, response, entity, elements.get());
+            return;
+        }
+        MessageBodyWriter writer = writers.get(entity.getRawType(), entity.getType(), response.getAnnotations(), response.getMediaType());
+        if (!nonBlocking) {
             writer.writeTo(entity.getEntity(), entity.getRawType(), entity.getType(), response.getAnnotations(), response.getMediaType(), response.getHeaders(), resp.getOutputStream());
+            exchange.complete();
+            return;
+        }
+        ResponseBuffer buffer = new ResponseBuffer();
+        try {
+            writer.writeTo(entity.getEntity(), entity.getRawType(), entity.getType(), response.getAnnotations(), response.getMediaType(), response.getHeaders(), buffer);
+        } catch (Throwable throwable) {
+            buffer.release();
+            throw throwable;
+        }
+        flush(exchange, buffer, next -> false, () -> {
+        });
+    }
+
+    private void publish(Exchange exchange, Flow.Publisher<?> publisher) throws IOException {
+        exchange.suspend().setTimeout(0);
+        exchange.resp.setContentType("text/event-stream;charset=UTF-8");
+        exchange.resp.setHeader("Cache-Control", "no-cache");
+        exchange.resp.flushBuffer();
+        EventSubscriber subscriber = new EventSubscriber(exchange, exchange.resp.getOutputStream());
+        publisher.subscribe(subscriber);
+    }
+
+    private static Optional<Iterator<?>> elements(Object entity) {
+        if (entity instanceof Stream<?> stream) return Optional.of(stream.iterator());
+        if (entity instanceof Iterator<?> iterator) return Optional.of(iterator);
+        return Optional.empty();
+    }
+
+    private void stream(Exchange exchange, OutBoundResponse response, GenericEntity entity, Iterator<?> elements) throws IOException {
+        ElementWriter writer = new ElementWriter(response, entity.getType());
+        Runnable close = () -> {
+            if (entity.getEntity() instanceof BaseStream<?, ?> stream) stream.close();
+        };
+        if (nonBlocking) {
+            ResponseBuffer buffer = new ResponseBuffer();
+            try {
+                writer.writeNext(elements, buffer);
+            } catch (Throwable throwable) {
+                buffer.release();
+                close.run();
+                throw throwable;
+            }
+            flush(exchange, buffer, next -> writer.writeNext(elements, next), close);
+            return;
+        }
+        try {
+            ServletOutputStream output = exchange.resp.getOutputStream();
+            for (int written = 1; writer.writeNext(elements, output); written++)
+                if (written % FLUSH_INTERVAL == 0) output.flush();
+        } finally {
+            close.run();
+        }
+        exchange.complete();
+    }
+
+    private void flush(Exchange exchange, ResponseBuffer buffer, Refill refill, Runnable close) throws IOException {
+        exchange.suspend();
+        ServletOutputStream output = exchange.resp.getOutputStream();
+        output.setWriteListener(new WriteListener() {
+            @Override
+            public void onWritePossible() throws IOException {
+                while (output.isReady()) {
+                    if (buffer.writeNext(output)) continue;
+                    buffer.reset();
+                    if (!refill.writeNext(buffer)) {
+                        done();
+                        return;
+                    }
+                }
+            }
+
+            @Override
+            public void onError(Throwable throwable) {
+                done();
+            }
+
+            private void done() {
+                buffer.release();
+                close.run();
+                exchange.complete();
+            }
+        });
+    }
+
+    private interface Refill {
+        boolean writeNext(OutputStream buffer) throws IOException;
+    }
+
+    private static class EventSubscriber implements Flow.Subscriber<Object> {
+        private final Exchange exchange;
+        private final ServletOutputStream output;
+        private final Queue<byte[]> events = new ConcurrentLinkedQueue<>();
+        private Flow.Subscription subscription;
+        private boolean unflushed;
+        private boolean completed;
+        private boolean closed;
+
+        EventSubscriber(Exchange exchange, ServletOutputStream output) {
+            this.exchange = exchange;
+            this.output = output;
+        }
+
+        @Override
+        public void onSubscribe(Flow.Subscription subscription) {
+            synchronized (this) {
+                this.subscription = subscription;
+            }
+            output.setWriteListener(new WriteListener() {
+                @Override
+                public void onWritePossible() throws IOException {
+                    write();
+                }
+
+                @Override
+                public void onError(Throwable throwable) {
+                    close();
+                }
+            });
+            subscription.request(1);
+        }
+
+        @Override
+        public void onNext(Object item) {
+            events.add(item instanceof ServerSentEvent event ? event.encoded() : new ServerSentEvent(String.valueOf(item)).encoded());
+            tryWrite();
+        }
+
+        @Override
+        public void onError(Throwable throwable) {
+            synchronized (this) {
+                completed = true;
+            }
+            tryWrite();
+        }
+
+        @Override
+        public void onComplete() {
+            synchronized (this) {
+                completed = true;
+            }
+            tryWrite();
+        }
+
+        private void tryWrite() {
+            try {
+                write();
+            } catch (IOException | RuntimeException e) {
+                close();
+            }
+        }
+
+        private void write() throws IOException {
+            int written = 0;
+            boolean finished = false;
+            synchronized (this) {
+                while (!closed && output.isReady()) {
+                    byte[] event = events.poll();
+                    if (event != null) {
+                        output.write(event);
+                        unflushed = true;
+                        written++;
+                    } else if (unflushed) {
+                        unflushed = false;
+                        output.flush();
+                    } else {
+                        finished = completed;
+                        break;
+                    }
+                }
+            }
+            if (finished) close();
+            else if (written > 0) subscription.request(written);
+        }
+
+        private void close() {
+            synchronized (this) {
+                if (closed) return;
+                closed = true;
+                events.clear();
+            }
+            subscription.cancel();
+            exchange.complete();
+        }
+    }
+
+    private class ElementWriter {
+        private final OutBoundResponse response;
+        private final Optional<Type> type;
+
+        ElementWriter(OutBoundResponse response, Type type) {
+            this.response = response;
+            this.type = elementType(type);
+        }
+
+        private static Optional<Type> elementType(Type type) {
+            if (type instanceof ParameterizedType parameterized) {
+                Type element = parameterized.getActualTypeArguments()[0];
+                if (element instanceof Class<?> || element instanceof ParameterizedType) return Optional.of(element);
+            }
+            return Optional.empty();
+        }
+
+        boolean writeNext(Iterator<?> elements, OutputStream output) throws IOException {
+            if (!elements.hasNext()) return false;
+            Object element = elements.next();
+            if (element == null) return true;
+            Type elementType = type.orElse(element.getClass());
+            Class<?> rawType = elementType instanceof ParameterizedType parameterized ? (Class<?>) parameterized.getRawType() : (Class<?>) elementType;
+            MessageBodyWriter writer = writers.get(rawType, elementType, response.getAnnotations(), response.getMediaType());
+            writer.writeTo(element, rawType, elementType, response.getAnnotations(), response.getMediaType(), response.getHeaders(), output);
+            return true;
         }
     }
 
     private OutBoundResponse from(Throwable throwable) {
+        if (throwable instanceof WebApplicationException exception) return (OutBoundResponse) exception.getResponse();
         ExceptionMapper exceptionMapper = this.providers.getExceptionMapper(throwable.getClass());
         return (OutBoundResponse) exceptionMapper.toResponse(throwable);
     }
+
+    private static class Exchange {
+        private final HttpServletRequest req;
+        private final HttpServletResponse resp;
+        private final AtomicBoolean resumed = new AtomicBoolean();
+        private volatile Runnable timeout;
+        private AsyncContext async;
+
+        Exchange(HttpServletRequest req, HttpServletResponse resp) {
+            this.req = req;
+            this.resp = resp;
+        }
+
+        AsyncContext suspend() {
+            if (async != null) return async;
+            async = req.startAsync();
+            async.addListener(new AsyncListener() {
+                @Override
+                public void onComplete(AsyncEvent event) {
+                    resumed.set(true);
+                }
+
+                @Override
+                public void onTimeout(AsyncEvent event) {
+                    Runnable handler = timeout;
+                    if (handler != null && resume()) handler.run();
+                }
+
+                @Override
+                public void onError(AsyncEvent event) {
+                    resumed.set(true);
+                }
+
+                @Override
+                public void onStartAsync(AsyncEvent event) {
+                }
+            });
+            return async;
+        }
+
+        void onTimeout(Runnable timeout) {
+            this.timeout = timeout;
+        }
+
+        boolean resume() {
+            return resumed.compareAndSet(false, true);
+        }
+
+        void complete() {
+            if (async != null) async.complete();
+        }
+
+        void abort(Throwable throwable) {
+            if (async == null) throw new IllegalStateException("response failed after committed", throwable);
+            async.complete();
+        }
+    }
+}
+
+class ResponseBuffer extends OutputStream {
+    private static final int CHUNK_SIZE = 8192;
+    private static final int POOLED_CHUNKS = 256;
+    private static final Queue<byte[]> POOL = new ConcurrentLinkedQueue<>();
+    private static final AtomicInteger pooled = new AtomicInteger();
+
+    private final List<byte[]> chunks = new ArrayList<>();
+    private int count;
+    private int flushed;
+
+    @Override
+    public void write(int b) {
+        chunk()[count++ % CHUNK_SIZE] = (byte) b;
+    }
+
+    @Override
+    public void write(byte[] bytes, int offset, int length) {
+        while (length > 0) {
+            int written = Math.min(length, CHUNK_SIZE - count % CHUNK_SIZE);
+            System.arraycopy(bytes, offset, chunk(), count % CHUNK_SIZE, written);
+            count += written;
+            offset += written;
+            length -= written;
+        }
+    }
+
+    private byte[] chunk() {
+        if (count == chunks.size() * CHUNK_SIZE) chunks.add(acquire());
+        return chunks.get(count / CHUNK_SIZE);
+    }
+
+
+    boolean writeNext(OutputStream output) throws IOException {
+        if (flushed == count) return false;
+        int length = Math.min(CHUNK_SIZE, count - flushed);
+        output.write(chunks.get(flushed / CHUNK_SIZE), 0, length);
+        flushed += length;
+        return true;
+    }
+
+    void reset() {
+        count = 0;
+        flushed = 0;
+    }
+
+    void release() {
+        for (byte[] chunk : chunks)
+            if (pooled.incrementAndGet() <= POOLED_CHUNKS) POOL.offer(chunk);
+            else pooled.decrementAndGet();
+        chunks.clear();
+    }
+
+    private static byte[] acquire() {
+        byte[] chunk = POOL.poll();
+        if (chunk == null) return new byte[CHUNK_SIZE];
+        pooled.decrementAndGet();
+        return chunk;
+    }
+}
+
+class MessageBodyWriters {
+    private final Providers providers;
+    private final Map<Key, Optional<MessageBodyWriter<?>>> writers = new ConcurrentHashMap<>();
+
+    MessageBodyWriters(Providers providers) {
+        this.providers = providers;
+    }
+
+    MessageBodyWriter<?> get(Class<?> rawType, Type genericType, Annotation[] annotations, MediaType mediaType) {
+        Key key = new Key(rawType, genericType, annotations == null ? List.of() : List.of(annotations), mediaType);
+        Optional<MessageBodyWriter<?>> writer = writers.get(key);
+        if (writer == null) {
+            writer = Optional.ofNullable(providers.getMessageBodyWriter(rawType, genericType, annotations, mediaType));
+            writers.putIfAbsent(key, writer);
+        }
+        return writer.orElse(null);
+    }
+
+    private record Key(Class<?> rawType, Type genericType, List<Annotation> annotations, MediaType mediaType) {
+    }
+}
+
+class HeaderDelegates {
+    private volatile Delegates delegates = new Delegates(null, Map.of());
+
+    String toString(Object value) {
+        if (value instanceof OutBoundResponse.EncodedHeader header) return header.value();
+        return delegate(value.getClass()).toString(value);
+    }
+
+    private RuntimeDelegate.HeaderDelegate delegate(Class<?> type) {
+        RuntimeDelegate runtime = RuntimeDelegate.getInstance();
+        Delegates current = delegates;
+        if (current.runtime() != runtime) delegates = current = new Delegates(runtime, new ConcurrentHashMap<>());
+        return current.delegates().computeIfAbsent(type, runtime::createHeaderDelegate);
+    }
+
+    private record Delegates(RuntimeDelegate runtime, Map<Class<?>, RuntimeDelegate.HeaderDelegate> delegates) {
+    }
 }
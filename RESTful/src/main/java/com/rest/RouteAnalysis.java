@@ -0,0 +1,76 @@
+package com.rest;
+
+import java.util.*;
+import java.util.stream.IntStream;
+
+interface RouteAnalysis {
+    RouteAnalysis NONE = new RouteAnalysis() {
+        @Override
+        public PathTemplate template(String path) {
+            return new PathTemplate(path);
+        }
+
+        @Override
+        public <T extends UriHandler> UriHandlers.Ordered<T> order(String group, List<T> handlers) {
+            return UriHandlers.order(handlers);
+        }
+    };
+
+    PathTemplate template(String path);
+
+    <T extends UriHandler> UriHandlers.Ordered<T> order(String group, List<T> handlers);
+
+    record Order(boolean firstMatchWins, List<Integer> positions) {
+    }
+
+    class Recorder implements RouteAnalysis {
+        private final Map<String, PathTemplate> templates = new LinkedHashMap<>();
+        private final Map<String, Order> orders = new LinkedHashMap<>();
+
+        @Override
+        public PathTemplate template(String path) {
+            return templates.computeIfAbsent(path, PathTemplate::new);
+        }
+
+        @Override
+        public <T extends UriHandler> UriHandlers.Ordered<T> order(String group, List<T> handlers) {
+            UriHandlers.Ordered<T> ordered = UriHandlers.order(handlers);
+            orders.put(group, new Order(ordered.firstMatchWins(), ordered.handlers().stream()
+                    .map(handler -> IntStream.range(0, handlers.size()).filter(i -> handlers.get(i) == handler).findFirst().getAsInt()).toList()));
+            return ordered;
+        }
+
+        Map<String, PathTemplate.Analysis> getTemplates() {
+            Map<String, PathTemplate.Analysis> analyses = new LinkedHashMap<>();
+            templates.forEach((path, template) -> analyses.put(path, template.getAnalysis()));
+            return analyses;
+        }
+
+        Map<String, Order> getOrders() {
+            return orders;
+        }
+    }
+
+    class Restored implements RouteAnalysis {
+        private final Map<String, PathTemplate> templates = new HashMap<>();
+        private final Map<String, Order> orders;
+
+        Restored(Map<String, PathTemplate.Analysis> templates, Map<String, Order> orders) {
+            templates.forEach((path, analysis) -> this.templates.put(path, new PathTemplate(analysis)));
+            this.orders = orders;
+        }
+
+        @Override
+        public PathTemplate template(String path) {
+            PathTemplate template = templates.get(path);
+            return template != null ? template : new PathTemplate(path);
+        }
+
+        @Override
+        public <T extends UriHandler> UriHandlers.Ordered<T> order(String group, List<T> handlers) {
+            Order order = orders.get(group);
+            if (order == null || order.positions().size() != handlers.size()) return UriHandlers.order(handlers);
+            return new UriHandlers.Ordered<>(order.positions().stream().map(handlers::get).toList(), order.firstMatchWins());
+        }
+    }
+}
@@ -0,0 +1,145 @@
+package com.rest;
+
+import jakarta.ws.rs.container.ResourceContext;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.LongAdder;
+
+class RouteCache {
+    private final int maximumSize;
+    private final Map<Key, Route> routes = new ConcurrentHashMap<>();
+    private final Queue<Key> insertionOrder = new ConcurrentLinkedQueue<>();
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+
+    public RouteCache(int maximumSize) {
+        if (maximumSize <= 0) throw new IllegalArgumentException("maximum size must be positive");
+        this.maximumSize = maximumSize;
+    }
+
+    Optional<Route> get(Key key) {
+        Route route = routes.get(key);
+        if (route == null) misses.increment();
+        else hits.increment();
+        return Optional.ofNullable(route);
+    }
+
+    void put(Key key, Route route) {
+        if (routes.putIfAbsent(key, route) != null) return;
+        insertionOrder.add(key);
+        while (routes.size() > maximumSize) {
+            Key eldest = insertionOrder.poll();
+            if (eldest == null) return;
+            if (routes.remove(eldest) != null) evictions.increment();
+        }
+    }
+
+    public int size() {
+        return routes.size();
+    }
+
+    public Statistics getStatistics() {
+        return new Statistics(hits.sum(), misses.sum(), evictions.sum());
+    }
+
+    record Key(String httpMethod, String path, List<String> mediaTypes) {
+    }
+
+    public record Statistics(long hits, long misses, long evictions) {
+    }
+}
+
+class Route {
+    private final List<Step> steps;
+    private final ResourceRouter.ResourceMethod method;
+
+    private Route(List<Step> steps, ResourceRouter.ResourceMethod method) {
+        this.steps = List.copyOf(steps);
+        this.method = method;
+    }
+
+    Optional<ResourceRouter.ResourceMethod> replay(String httpMethod, String[] mediaTypes, ResourceContext resourceContext, UriInfoBuilder builder) {
+        return new Replay(httpMethod, mediaTypes, resourceContext, builder).proceed();
+    }
+
+    interface Step {
+        Optional<ResourceRouter.ResourceMethod> replay(Replay replay);
+    }
+
+    interface Trace {
+        Trace NONE = new Trace() {
+            @Override
+            public void add(Step step) {
+            }
+
+            @Override
+            public void abandon() {
+            }
+        };
+
+        void add(Step step);
+
+        void abandon();
+    }
+
+    static class Recorder implements Trace {
+        private final List<Step> steps = new ArrayList<>();
+        private boolean abandoned = false;
+
+        @Override
+        public void add(Step step) {
+            steps.add(step);
+        }
+
+        @Override
+        public void abandon() {
+            abandoned = true;
+        }
+
+        Optional<Route> complete(ResourceRouter.ResourceMethod method) {
+            return abandoned ? Optional.empty() : Optional.of(new Route(steps, method));
+        }
+    }
+
+    class Replay {
+        private final String httpMethod;
+        private final String[] mediaTypes;
+        private final ResourceContext resourceContext;
+        private final UriInfoBuilder builder;
+        private int next = 0;
+
+        private Replay(String httpMethod, String[] mediaTypes, ResourceContext resourceContext, UriInfoBuilder builder) {
+            this.httpMethod = httpMethod;
+            this.mediaTypes = mediaTypes;
+            this.resourceContext = resourceContext;
+            this.builder = builder;
+        }
+
+        Optional<ResourceRouter.ResourceMethod> proceed() {
+            return next < steps.size() ? steps.get(next++).replay(this) : Optional.of(method);
+        }
+
+        boolean requiresResource() {
+            return next < steps.size() || ResourceHandler.requiresResource(method);
+        }
+
+        String getHttpMethod() {
+            return httpMethod;
+        }
+
+        String[] getMediaTypes() {
+            return mediaTypes;
+        }
+
+        ResourceContext getResourceContext() {
+            return resourceContext;
+        }
+
+        UriInfoBuilder getBuilder() {
+            return builder;
+        }
+    }
+}
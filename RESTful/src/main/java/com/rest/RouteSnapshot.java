@@ -0,0 +1,240 @@
+package com.rest;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.util.*;
+import java.util.function.Function;
+import java.util.zip.CRC32;
+
+class RouteSnapshot {
+    private static final int MAGIC = 0x52534e50;
+    private static final int VERSION = 3;
+    private static final Map<String, Class<?>> PRIMITIVES = Map.of("boolean", boolean.class, "byte", byte.class, "char", char.class,
+            "short", short.class, "int", int.class, "long", long.class, "float", float.class, "double", double.class);
+
+    private final List<Class<?>> rootResources;
+    private final Map<Class<?>, Routes> routes;
+
+    private RouteSnapshot(List<Class<?>> rootResources, Map<Class<?>, Routes> routes) {
+        this.rootResources = List.copyOf(rootResources);
+        this.routes = routes;
+    }
+
+    public static RouteSnapshot of(List<Class<?>> rootResources) {
+        Map<Class<?>, Routes> routes = new LinkedHashMap<>();
+        for (Class<?> root : rootResources)
+            for (Class<?> type : new ResourceHandler(root).prepare())
+                routes.computeIfAbsent(type, RouteSnapshot::analyse);
+        return new RouteSnapshot(rootResources, routes);
+    }
+
+    private static Routes analyse(Class<?> type) {
+        List<RouteTable.Entry> entries = RouteTable.of(type);
+        RouteAnalysis.Recorder recorder = new RouteAnalysis.Recorder();
+        ResourceHandler.Metadata.of(entries, recorder);
+        return new Routes(entries, recorder.getTemplates(), recorder.getOrders());
+    }
+
+    public List<Class<?>> getRootResources() {
+        return rootResources;
+    }
+
+    public Function<Class<?>, ResourceHandler.Metadata> metadata() {
+        Map<Class<?>, ResourceHandler.Metadata> restored = new HashMap<>();
+        routes.forEach((type, recorded) -> restored.put(type, ResourceHandler.Metadata.of(recorded.entries(),
+                new RouteAnalysis.Restored(recorded.templates(), recorded.orders()))));
+        return type -> Optional.ofNullable(restored.get(type)).orElseGet(() -> ResourceHandler.metadata(type));
+    }
+
+    public void write(OutputStream stream) throws IOException {
+        DataOutputStream output = new DataOutputStream(new BufferedOutputStream(stream));
+        output.writeInt(MAGIC);
+        output.writeInt(VERSION);
+        output.writeLong(fingerprint(routes.keySet()));
+        output.writeInt(rootResources.size());
+        for (Class<?> root : rootResources) output.writeUTF(root.getName());
+        output.writeInt(routes.size());
+        for (Map.Entry<Class<?>, Routes> type : routes.entrySet()) {
+            output.writeUTF(type.getKey().getName());
+            output.writeInt(type.getValue().entries().size());
+            for (RouteTable.Entry entry : type.getValue().entries()) write(output, entry.route());
+            output.writeInt(type.getValue().templates().size());
+            for (PathTemplate.Analysis template : type.getValue().templates().values()) write(output, template);
+            output.writeInt(type.getValue().orders().size());
+            for (Map.Entry<String, RouteAnalysis.Order> order : type.getValue().orders().entrySet()) {
+                output.writeUTF(order.getKey());
+                output.writeBoolean(order.getValue().firstMatchWins());
+                output.writeInt(order.getValue().positions().size());
+                for (int position : order.getValue().positions()) output.writeInt(position);
+            }
+        }
+        output.flush();
+    }
+
+    private static void write(DataOutputStream output, PathTemplate.Analysis template) throws IOException {
+        output.writeUTF(template.template());
+        output.writeUTF(template.regex());
+        writeStrings(output, Optional.of(template.variables()));
+        output.writeInt(template.specificPatterns());
+        output.writeInt(template.specificity().literals());
+        output.writeInt(template.specificity().variables());
+        output.writeInt(template.specificity().specificPatterns());
+        output.writeBoolean(template.segments().isPresent());
+        if (template.segments().isPresent()) {
+            output.writeInt(template.segments().get().size());
+            for (PathTemplate.Segment segment : template.segments().get()) {
+                output.writeByte(segment.kind().ordinal());
+                writeNullable(output, segment.value());
+            }
+        }
+        writeNullable(output, template.firstSegment().orElse(null));
+        writeStrings(output, template.literals());
+        output.writeBoolean(template.fixedLiterals());
+    }
+
+    private static void write(DataOutputStream output, GeneratedRoutes.Route route) throws IOException {
+        output.writeUTF(route.path());
+        writeNullable(output, route.httpMethod());
+        output.writeUTF(route.name());
+        output.writeByte(route.parameterTypes().size());
+        for (Class<?> parameter : route.parameterTypes()) output.writeUTF(parameter.getName());
+        for (GeneratedRoutes.Parameter parameter : route.parameters()) {
+            writeNullable(output, parameter.pathParam());
+            writeNullable(output, parameter.queryParam());
+            writeNullable(output, parameter.defaultValue());
+        }
+    }
+
+    public static Optional<RouteSnapshot> read(InputStream stream, ClassLoader loader) {
+        try {
+            DataInputStream input = new DataInputStream(new BufferedInputStream(stream));
+            if (input.readInt() != MAGIC || input.readInt() != VERSION) return Optional.empty();
+            long fingerprint = input.readLong();
+            List<Class<?>> roots = new ArrayList<>();
+            for (int i = input.readInt(); i > 0; i--) roots.add(type(input.readUTF(), loader));
+            Map<Class<?>, Routes> routes = new LinkedHashMap<>();
+            for (int i = input.readInt(); i > 0; i--) {
+                Class<?> type = type(input.readUTF(), loader);
+                List<GeneratedRoutes.Route> recorded = new ArrayList<>();
+                for (int j = input.readInt(); j > 0; j--) recorded.add(route(input, loader));
+                Map<String, PathTemplate.Analysis> templates = new LinkedHashMap<>();
+                for (int j = input.readInt(); j > 0; j--) {
+                    PathTemplate.Analysis template = template(input);
+                    templates.put(template.template(), template);
+                }
+                Map<String, RouteAnalysis.Order> orders = new LinkedHashMap<>();
+                for (int j = input.readInt(); j > 0; j--) orders.put(input.readUTF(), order(input));
+                routes.put(type, new Routes(RouteTable.resolve(type, recorded), templates, orders));
+            }
+            if (fingerprint != fingerprint(routes.keySet())) return Optional.empty();
+            return Optional.of(new RouteSnapshot(roots, routes));
+        } catch (IOException | ReflectiveOperationException | LinkageError e) {
+            return Optional.empty();
+        }
+    }
+
+    private static GeneratedRoutes.Route route(DataInputStream input, ClassLoader loader) throws IOException, ClassNotFoundException {
+        String path = input.readUTF();
+        String httpMethod = readNullable(input);
+        String name = input.readUTF();
+        Class<?>[] types = new Class<?>[input.readUnsignedByte()];
+        for (int i = 0; i < types.length; i++) types[i] = type(input.readUTF(), loader);
+        List<GeneratedRoutes.Parameter> parameters = new ArrayList<>();
+        for (int i = 0; i < types.length; i++)
+            parameters.add(new GeneratedRoutes.Parameter(readNullable(input), readNullable(input), readNullable(input)));
+        return new GeneratedRoutes.Route(path, httpMethod, name, List.of(types), List.copyOf(parameters));
+    }
+
+    private static PathTemplate.Analysis template(DataInputStream input) throws IOException {
+        String template = input.readUTF();
+        String regex = input.readUTF();
+        List<String> variables = readStrings(input).orElseThrow(() -> new InvalidObjectException("variables"));
+        int specificPatterns = input.readInt();
+        PathTemplate.Specificity specificity = new PathTemplate.Specificity(input.readInt(), input.readInt(), input.readInt());
+        Optional<List<PathTemplate.Segment>> segments = Optional.empty();
+        if (input.readBoolean()) {
+            List<PathTemplate.Segment> read = new ArrayList<>();
+            for (int i = input.readInt(); i > 0; i--) read.add(new PathTemplate.Segment(segmentKind(input.readUnsignedByte()), readNullable(input)));
+            segments = Optional.of(List.copyOf(read));
+        }
+        Optional<String> firstSegment = Optional.ofNullable(readNullable(input));
+        Optional<List<String>> literals = readStrings(input);
+        return new PathTemplate.Analysis(template, regex, variables, specificPatterns, specificity, segments, firstSegment, literals, input.readBoolean());
+    }
+
+    private static PathTemplate.Segment.Kind segmentKind(int ordinal) throws IOException {
+        PathTemplate.Segment.Kind[] kinds = PathTemplate.Segment.Kind.values();
+        if (ordinal >= kinds.length) throw new InvalidObjectException("segment kind " + ordinal);
+        return kinds[ordinal];
+    }
+
+    private static RouteAnalysis.Order order(DataInputStream input) throws IOException {
+        boolean firstMatchWins = input.readBoolean();
+        int size = input.readInt();
+        boolean[] seen = new boolean[size];
+        List<Integer> positions = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            int position = input.readInt();
+            if (position < 0 || position >= size || seen[position]) throw new InvalidObjectException("position " + position);
+            seen[position] = true;
+            positions.add(position);
+        }
+        return new RouteAnalysis.Order(firstMatchWins, List.copyOf(positions));
+    }
+
+    private static void writeStrings(DataOutputStream output, Optional<List<String>> values) throws IOException {
+        output.writeBoolean(values.isPresent());
+        if (values.isEmpty()) return;
+        output.writeInt(values.get().size());
+        for (String value : values.get()) output.writeUTF(value);
+    }
+
+    private static Optional<List<String>> readStrings(DataInputStream input) throws IOException {
+        if (!input.readBoolean()) return Optional.empty();
+        List<String> values = new ArrayList<>();
+        for (int i = input.readInt(); i > 0; i--) values.add(input.readUTF());
+        return Optional.of(List.copyOf(values));
+    }
+
+    private static void writeNullable(DataOutputStream output, String value) throws IOException {
+        output.writeBoolean(value != null);
+        if (value != null) output.writeUTF(value);
+    }
+
+    private static String readNullable(DataInputStream input) throws IOException {
+        return input.readBoolean() ? input.readUTF() : null;
+    }
+
+    private static Class<?> type(String name, ClassLoader loader) throws ClassNotFoundException {
+        Class<?> primitive = PRIMITIVES.get(name);
+        return primitive != null ? primitive : Class.forName(name, false, loader);
+    }
+
+    private record Routes(List<RouteTable.Entry> entries, Map<String, PathTemplate.Analysis> templates, Map<String, RouteAnalysis.Order> orders) {
+    }
+
+    static long fingerprint(Collection<Class<?>> types) throws IOException {
+        CRC32 crc = new CRC32();
+        for (Class<?> type : hierarchy(types)) {
+            crc.update(type.getName().getBytes(StandardCharsets.UTF_8));
+            String name = type.getName();
+            try (InputStream bytecode = type.getResourceAsStream(name.substring(name.lastIndexOf('.') + 1) + ".class")) {
+                if (bytecode == null) throw new FileNotFoundException(name);
+                crc.update(bytecode.readAllBytes());
+            }
+        }
+        return crc.getValue();
+    }
+
+    static Set<Class<?>> hierarchy(Collection<Class<?>> types) {
+        Set<Class<?>> hierarchy = new LinkedHashSet<>();
+        Deque<Class<?>> pending = new ArrayDeque<>(types);
+        while (!pending.isEmpty()) {
+            Class<?> type = pending.poll();
+            if (type.getClassLoader() == null || !hierarchy.add(type)) continue;
+            Optional.ofNullable(type.getSuperclass()).ifPresent(pending::add);
+            pending.addAll(List.of(type.getInterfaces()));
+        }
+        return hierarchy;
+    }
+}
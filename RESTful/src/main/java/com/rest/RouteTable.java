@@ -0,0 +1,63 @@
+package com.rest;
+
+import jakarta.ws.rs.DefaultValue;
+import jakarta.ws.rs.HttpMethod;
+import jakarta.ws.rs.Path;
+import jakarta.ws.rs.PathParam;
+import jakarta.ws.rs.QueryParam;
+
+import java.lang.reflect.Method;
+import java.lang.reflect.Parameter;
+import java.util.*;
+
+class RouteTable {
+    static final String SUFFIX = "$Routes";
+
+    static List<Entry> of(Class<?> resourceClass) {
+        return generated(resourceClass).orElseGet(() -> scan(resourceClass.getMethods()));
+    }
+
+    static Optional<List<Entry>> generated(Class<?> resourceClass) {
+        try {
+            Class<?> generated = Class.forName(resourceClass.getName() + SUFFIX, true, resourceClass.getClassLoader());
+            if (!GeneratedRoutes.class.isAssignableFrom(generated)) return Optional.empty();
+            return Optional.of(resolve(resourceClass, ((GeneratedRoutes) generated.getConstructor().newInstance()).routes()));
+        } catch (ReflectiveOperationException | LinkageError e) {
+            return Optional.empty();
+        }
+    }
+
+    static List<Entry> resolve(Class<?> resourceClass, List<GeneratedRoutes.Route> routes) throws NoSuchMethodException {
+        List<Entry> entries = new ArrayList<>(routes.size());
+        for (GeneratedRoutes.Route route : routes)
+            entries.add(new Entry(resourceClass.getMethod(route.name(), route.parameterTypes().toArray(Class<?>[]::new)), route));
+        return entries;
+    }
+
+    static List<Entry> scan(Method[] methods) {
+        return Arrays.stream(methods).flatMap(method -> route(method).map(route -> new Entry(method, route)).stream()).toList();
+    }
+
+    static Optional<GeneratedRoutes.Route> route(Method method) {
+        Optional<String> httpMethod = Arrays.stream(method.getAnnotations()).filter(a -> a.annotationType().isAnnotationPresent(HttpMethod.class))
+                .findFirst().map(a -> a.annotationType().getAnnotation(HttpMethod.class).value());
+        Optional<String> path = Optional.ofNullable(method.getAnnotation(Path.class)).map(Path::value);
+        if (httpMethod.isEmpty() && path.isEmpty()) return Optional.empty();
+        return Optional.of(new GeneratedRoutes.Route(path.orElse(""), httpMethod.orElse(null), method.getName(),
+                List.of(method.getParameterTypes()), parameters(method)));
+    }
+
+    static List<GeneratedRoutes.Parameter> parameters(Method method) {
+        return Arrays.stream(method.getParameters()).map(RouteTable::parameter).toList();
+    }
+
+    private static GeneratedRoutes.Parameter parameter(Parameter parameter) {
+        return new GeneratedRoutes.Parameter(
+                Optional.ofNullable(parameter.getAnnotation(PathParam.class)).map(PathParam::value).orElse(null),
+                Optional.ofNullable(parameter.getAnnotation(QueryParam.class)).map(QueryParam::value).orElse(null),
+                Optional.ofNullable(parameter.getAnnotation(DefaultValue.class)).map(DefaultValue::value).orElse(null));
+    }
+
+    record Entry(Method method, GeneratedRoutes.Route route) {
+    }
+}
@@ -0,0 +1,142 @@
+package com.rest;
+
+import java.util.*;
+import java.util.function.BiFunction;
+import java.util.regex.Pattern;
+
+class SegmentTrie<T extends UriHandler> {
+    private final Node<T> root = new Node<>();
+    private final List<Entry<T>> unindexed = new ArrayList<>();
+    private final boolean unindexedOrdered;
+    private final Optional<Set<String>> firstSegments;
+
+    public SegmentTrie(List<T> handlers) {
+        for (int i = 0; i < handlers.size(); i++) {
+            T handler = handlers.get(i);
+            Entry<T> entry = new Entry<>(i, handler, UriHandlers.specificity(handler).orElse(null));
+            if (handler.getUriTemplate() instanceof PathTemplate template && template.getSegments().isPresent())
+                root.add(template.getSegments().get(), 0, entry);
+            else unindexed.add(entry);
+        }
+        unindexedOrdered = unindexed.stream().allMatch(entry -> entry.specificity() != null);
+        if (unindexedOrdered) unindexed.sort(Comparator.comparing(Entry<T>::specificity).thenComparingInt(Entry::index));
+        firstSegments = firstSegments(handlers);
+    }
+
+    private static <T extends UriHandler> Optional<Set<String>> firstSegments(List<T> handlers) {
+        Set<String> segments = new HashSet<>();
+        for (T handler : handlers) {
+            if (!(handler.getUriTemplate() instanceof PathTemplate template) || template.getFirstSegment().isEmpty())
+                return Optional.empty();
+            segments.add(template.getFirstSegment().get());
+        }
+        return Optional.of(segments);
+    }
+
+    public boolean mayMatch(String path) {
+        if (firstSegments.isEmpty()) return true;
+        if (!path.startsWith("/")) return false;
+        int end = path.indexOf('/', 1);
+        return firstSegments.get().contains(path.substring(1, end < 0 ? path.length() : end));
+    }
+
+    public <R> Optional<R> mapMatched(String path, BiFunction<Optional<UriTemplate.MatchResult>, T, Optional<R>> mapper) {
+        return matched(path).flatMap(c -> mapper.apply(Optional.of(c.result()), c.entry().handler()));
+    }
+
+    private Optional<Candidate<T>> matched(String path) {
+        Optional<Entry<T>> indexed = lookup(path);
+        if (unindexedOrdered) {
+            for (Entry<T> entry : unindexed) {
+                if (indexed.isPresent() && indexed.get().isBefore(entry)) break;
+                Optional<Candidate<T>> candidate = candidate(entry, path);
+                if (candidate.isPresent()) return candidate;
+            }
+            return indexed.flatMap(entry -> candidate(entry, path));
+        }
+        Candidate<T> best = indexed.flatMap(entry -> candidate(entry, path)).orElse(null);
+        for (Entry<T> entry : unindexed) {
+            Candidate<T> candidate = candidate(entry, path).orElse(null);
+            if (candidate != null && (best == null || candidate.compareTo(best) < 0)) best = candidate;
+        }
+        return Optional.ofNullable(best);
+    }
+
+    private Optional<Candidate<T>> candidate(Entry<T> entry, String path) {
+        return entry.handler().getUriTemplate().match(path).map(result -> new Candidate<>(entry, result));
+    }
+
+    private Optional<Entry<T>> lookup(String path) {
+        List<Node<T>> active = new ArrayList<>(List.of(root));
+        List<Node<T>> next = new ArrayList<>();
+        Entry<T> best = null;
+        int start = 0;
+        while (!active.isEmpty()) {
+            int end = path.indexOf('/', start);
+            if (end < 0) end = path.length();
+            String segment = path.substring(start, end);
+            for (Node<T> node : active) node.step(segment, next);
+            for (Node<T> node : next) if (node.terminal != null && node.terminal.isBefore(best)) best = node.terminal;
+            if (end == path.length()) break;
+            start = end + 1;
+            List<Node<T>> consumed = active;
+            active = next;
+            next = consumed;
+            next.clear();
+        }
+        return Optional.ofNullable(best);
+    }
+
+    private static class Node<T extends UriHandler> {
+        private final Map<String, Node<T>> literals = new HashMap<>();
+        private Node<T> parameter;
+        private final Map<String, RegexNode<T>> regexParameters = new LinkedHashMap<>();
+        private Entry<T> terminal;
+
+        void add(List<PathTemplate.Segment> segments, int index, Entry<T> entry) {
+            if (index == segments.size()) {
+                if (entry.isBefore(terminal)) terminal = entry;
+                return;
+            }
+            PathTemplate.Segment segment = segments.get(index);
+            Node<T> child = switch (segment.kind()) {
+                case LITERAL -> literals.computeIfAbsent(segment.value(), s -> new Node<>());
+                case PARAMETER -> parameter == null ? parameter = new Node<>() : parameter;
+                case REGEX_PARAMETER -> regexParameters.computeIfAbsent(segment.value(), RegexNode::new);
+            };
+            child.add(segments, index + 1, entry);
+        }
+
+        void step(String segment, List<Node<T>> next) {
+            Node<T> literal = literals.get(segment);
+            if (literal != null) next.add(literal);
+            if (parameter != null && !segment.isEmpty()) next.add(parameter);
+            for (RegexNode<T> regex : regexParameters.values())
+                if (regex.pattern.matcher(segment).matches()) next.add(regex);
+        }
+    }
+
+    private static class RegexNode<T extends UriHandler> extends Node<T> {
+        private final Pattern pattern;
+
+        RegexNode(String pattern) {
+            this.pattern = Pattern.compile(pattern);
+        }
+    }
+
+    private record Entry<T extends UriHandler>(int index, T handler, PathTemplate.Specificity specificity) {
+        boolean isBefore(Entry<T> o) {
+            if (o == null) return true;
+            int result = specificity.compareTo(o.specificity);
+            return result != 0 ? result < 0 : index < o.index;
+        }
+    }
+
+    private record Candidate<T extends UriHandler>(Entry<T> entry, UriTemplate.MatchResult result) implements Comparable<Candidate<T>> {
+        @Override
+        public int compareTo(Candidate<T> o) {
+            int compared = result.compareTo(o.result);
+            return compared != 0 ? compared : Integer.compare(entry.index(), o.entry.index());
+        }
+    }
+}
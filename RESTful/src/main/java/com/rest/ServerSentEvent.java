@@ -0,0 +1,23 @@
+package com.rest;
+
+import java.nio.charset.StandardCharsets;
+
+public class ServerSentEvent {
+    private final byte[] encoded;
+
+    public ServerSentEvent(String data) {
+        this(null, null, data);
+    }
+
+    public ServerSentEvent(String id, String name, String data) {
+        StringBuilder event = new StringBuilder();
+        if (id != null) event.append("id: ").append(id).append('\n');
+        if (name != null) event.append("event: ").append(name).append('\n');
+        for (String line : data.split("\r\n|\r|\n", -1)) event.append("data: ").append(line).append('\n');
+        encoded = event.append('\n').toString().getBytes(StandardCharsets.UTF_8);
+    }
+
+    byte[] encoded() {
+        return encoded;
+    }
+}
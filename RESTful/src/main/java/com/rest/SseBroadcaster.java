@@ -0,0 +1,123 @@
+package com.rest;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Flow;
+
+public class SseBroadcaster implements Flow.Publisher<ServerSentEvent>, AutoCloseable {
+    public enum Backpressure {DROP_SUBSCRIBER, DROP_OLDEST, DROP_LATEST}
+
+    private final int capacity;
+    private final Backpressure backpressure;
+    private final Set<Subscription> subscriptions = ConcurrentHashMap.newKeySet();
+    private volatile boolean closed;
+
+    public SseBroadcaster(int capacity, Backpressure backpressure) {
+        if (capacity <= 0) throw new IllegalArgumentException("capacity must be positive");
+        this.capacity = capacity;
+        this.backpressure = backpressure;
+    }
+
+    @Override
+    public void subscribe(Flow.Subscriber<? super ServerSentEvent> subscriber) {
+        Subscription subscription = new Subscription(subscriber);
+        subscriber.onSubscribe(subscription);
+        subscription.register();
+        if (closed) subscription.complete();
+    }
+
+    public void broadcast(ServerSentEvent event) {
+        if (closed) return;
+        for (Subscription subscription : subscriptions) subscription.offer(event);
+    }
+
+    public int size() {
+        return subscriptions.size();
+    }
+
+    @Override
+    public void close() {
+        closed = true;
+        for (Subscription subscription : subscriptions) subscription.complete();
+    }
+
+    private class Subscription implements Flow.Subscription {
+        private final Flow.Subscriber<? super ServerSentEvent> subscriber;
+        private final Deque<ServerSentEvent> pending = new ArrayDeque<>();
+        private long demand;
+        private boolean closing;
+        private boolean done;
+        private boolean draining;
+
+        Subscription(Flow.Subscriber<? super ServerSentEvent> subscriber) {
+            this.subscriber = subscriber;
+        }
+
+        synchronized void register() {
+            if (!done) subscriptions.add(this);
+        }
+
+        synchronized void offer(ServerSentEvent event) {
+            if (done || closing) return;
+            if (pending.size() == capacity) {
+                switch (backpressure) {
+                    case DROP_SUBSCRIBER -> {
+                        cancel();
+                        subscriber.onError(new IllegalStateException("subscriber can not keep up with " + capacity + " pending events"));
+                        return;
+                    }
+                    case DROP_OLDEST -> pending.poll();
+                    case DROP_LATEST -> {
+                        return;
+                    }
+                }
+            }
+            pending.add(event);
+            drain();
+        }
+
+        @Override
+        public synchronized void request(long n) {
+            if (done) return;
+            if (n <= 0) {
+                cancel();
+                subscriber.onError(new IllegalArgumentException("non-positive request " + n));
+                return;
+            }
+            demand = demand + n < 0 ? Long.MAX_VALUE : demand + n;
+            drain();
+        }
+
+        @Override
+        public synchronized void cancel() {
+            done = true;
+            pending.clear();
+            subscriptions.remove(this);
+        }
+
+        synchronized void complete() {
+            closing = true;
+            drain();
+        }
+
+        private void drain() {
+            // request() called from onNext re-enters here on the same thread; the outer loop picks up the new demand
+            if (draining) return;
+            draining = true;
+            try {
+                while (demand > 0 && !pending.isEmpty() && !done) {
+                    demand--;
+                    subscriber.onNext(pending.poll());
+                }
+                if (closing && pending.isEmpty() && !done) {
+                    cancel();
+                    subscriber.onComplete();
+                }
+            } finally {
+                draining = false;
+            }
+        }
+    }
+}
@@ -0,0 +1,166 @@
+package com.rest;
+
+import jakarta.ws.rs.HttpMethod;
+import jakarta.ws.rs.container.ResourceContext;
+
+import java.util.*;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+class SubResourceRoutes {
+    private final List<Branch> branches;
+    private final Function<Class<?>, ResourceHandler.Metadata> metadata;
+
+    private SubResourceRoutes(List<Branch> branches, Function<Class<?>, ResourceHandler.Metadata> metadata) {
+        this.branches = List.copyOf(branches);
+        this.metadata = metadata;
+    }
+
+    static Optional<SubResourceRoutes> of(SubResourceLocators locators, Function<Class<?>, ResourceHandler.Metadata> metadata) {
+        if (!locators.getLocators().firstMatchWins()) return Optional.empty();
+        List<Branch> branches = new ArrayList<>();
+        for (SubResourceLocators.SubResourceLocator locator : locators.getLocators().handlers())
+            branches.add(group(locator, "", metadata, new HashSet<>()).<Branch>map(group -> group).orElseGet(() -> new Dynamic(locator)));
+        if (branches.stream().noneMatch(Group.class::isInstance)) return Optional.empty();
+        return Optional.of(new SubResourceRoutes(branches, metadata));
+    }
+
+    private static Optional<Group> group(SubResourceLocators.SubResourceLocator locator, String parent, Function<Class<?>, ResourceHandler.Metadata> metadata, Set<Class<?>> chain) {
+        if (locator.getStaticType().isEmpty() || !isSegmented(locator.getPath(), locator.getUriTemplate())) return Optional.empty();
+        Class<?> type = locator.getStaticType().get();
+        if (!chain.add(type)) return Optional.empty();
+        try {
+            String path = parent + locator.getPath();
+            ResourceHandler.Metadata resource = metadata.apply(type);
+            Optional<Map<String, List<Candidate>>> methods = candidates(path, resource.resourceMethods());
+            UriHandlers.Ordered<SubResourceLocators.SubResourceLocator> locators = resource.subResourceLocators().getLocators();
+            if (methods.isEmpty() || !locators.firstMatchWins()) return Optional.empty();
+            List<Group> groups = new ArrayList<>();
+            for (SubResourceLocators.SubResourceLocator child : locators.handlers()) {
+                Optional<Group> group = group(child, path, metadata, chain);
+                if (group.isEmpty()) return Optional.empty();
+                groups.add(group.get());
+            }
+            return Optional.of(new Group(locator, type, new PathTemplate(path), methods.get(), List.copyOf(groups)));
+        } catch (IllegalArgumentException e) {
+            return Optional.empty();
+        } finally {
+            chain.remove(type);
+        }
+    }
+
+    private static Optional<Map<String, List<Candidate>>> candidates(String path, ResourceMethods resourceMethods) {
+        Map<String, List<Candidate>> candidates = new HashMap<>();
+        for (String httpMethod : resourceMethods.getHttpMethods()) {
+            UriHandlers.Ordered<ResourceRouter.ResourceMethod> methods = resourceMethods.getMethods(httpMethod);
+            if (!methods.firstMatchWins()) return Optional.empty();
+            List<Candidate> ordered = new ArrayList<>();
+            for (ResourceRouter.ResourceMethod method : methods.handlers()) {
+                if (!(method instanceof DefaultResourceMethod resourceMethod) || !isSegmented(resourceMethod.getPath(), resourceMethod.getUriTemplate()))
+                    return Optional.empty();
+                ordered.add(new Candidate(path + resourceMethod.getPath(), new PathTemplate(path + resourceMethod.getPath()), method));
+            }
+            candidates.put(httpMethod, ordered);
+        }
+        List<Candidate> head = new ArrayList<>(candidates.getOrDefault(HttpMethod.HEAD, List.of()));
+        for (Candidate candidate : candidates.getOrDefault(HttpMethod.GET, List.of()))
+            head.add(new Candidate(candidate.path(), candidate.template(), new HeadResourceMethod(candidate.method())));
+        if (!head.isEmpty()) candidates.put(HttpMethod.HEAD, head);
+        return Optional.of(candidates);
+    }
+
+    private static boolean isSegmented(String path, PathTemplate template) {
+        return path.isEmpty() || path.startsWith("/") && !path.endsWith("/") && template.getSegments().isPresent();
+    }
+
+    List<String> getTemplates() {
+        List<String> templates = new ArrayList<>();
+        Deque<Group> pending = new ArrayDeque<>();
+        branches.stream().filter(Group.class::isInstance).map(Group.class::cast).forEach(pending::add);
+        while (!pending.isEmpty()) {
+            Group group = pending.poll();
+            group.methods().values().stream().flatMap(List::stream).map(Candidate::path).filter(p -> !templates.contains(p)).forEach(templates::add);
+            pending.addAll(group.groups());
+        }
+        return templates;
+    }
+
+    Optional<ResourceRouter.ResourceMethod> findResourceMethods(String path, String httpMethod, String[] mediaTypes, ResourceContext resourceContext, UriInfoBuilder builder,
+                                                                Route.Trace trace, Runnable located) {
+        for (Branch branch : branches) {
+            if (branch instanceof Dynamic dynamic) {
+                Optional<UriTemplate.MatchResult> result = dynamic.locator().getUriTemplate().match(path);
+                if (result.isEmpty()) continue;
+                located.run();
+                return dynamic.locator().match(result.get(), httpMethod, mediaTypes, resourceContext, builder, trace, metadata);
+            }
+            Group group = (Group) branch;
+            Optional<UriTemplate.MatchResult> result = group.prefix().match(path);
+            if (result.isEmpty()) continue;
+            located.run();
+            return find(group, result.get(), path, httpMethod, mediaTypes, resourceContext, builder, trace);
+        }
+        return Optional.empty();
+    }
+
+    private Optional<ResourceRouter.ResourceMethod> find(Group top, UriTemplate.MatchResult prefix, String path, String httpMethod, String[] mediaTypes,
+                                                         ResourceContext resourceContext, UriInfoBuilder builder, Route.Trace trace) {
+        List<Group> chain = new ArrayList<>();
+        UriTemplate.MatchResult matched = prefix;
+        ResourceRouter.ResourceMethod method = null;
+        for (Group group = top; group != null && method == null; ) {
+            chain.add(group);
+            for (Candidate candidate : group.methods().getOrDefault(httpMethod, List.of())) {
+                Optional<UriTemplate.MatchResult> result = candidate.template().match(path).filter(r -> r.getRemaining() == null);
+                if (result.isEmpty()) continue;
+                matched = result.get();
+                method = candidate.method();
+                break;
+            }
+            Group next = null;
+            for (int i = 0; method == null && next == null && i < group.groups().size(); i++) {
+                Optional<UriTemplate.MatchResult> result = group.groups().get(i).prefix().match(path);
+                if (result.isEmpty()) continue;
+                matched = result.get();
+                next = group.groups().get(i);
+            }
+            group = next;
+        }
+        Map<String, String> parameters = matched.getMatchedPathParameters();
+        ResourceRouter.ResourceMethod found = method;
+        if (found != null)
+            trace.add(replay -> locate(chain, parameters, path, replay.getHttpMethod(), replay.getMediaTypes(), replay.getResourceContext(), replay.getBuilder(), Route.Trace.NONE, replay::proceed));
+        return locate(chain, parameters, path, httpMethod, mediaTypes, resourceContext, builder, trace, () -> Optional.ofNullable(found));
+    }
+
+    private Optional<ResourceRouter.ResourceMethod> locate(List<Group> chain, Map<String, String> parameters, String path, String httpMethod, String[] mediaTypes,
+                                                                  ResourceContext resourceContext, UriInfoBuilder builder, Route.Trace trace,
+                                                                  Supplier<Optional<ResourceRouter.ResourceMethod>> found) {
+        for (Group group : chain) {
+            Map<String, String> level = new HashMap<>();
+            for (String variable : group.locator().getUriTemplate().getVariables()) level.put(variable, parameters.get(variable));
+            Object resource = group.locator().locate(level, resourceContext, builder);
+            if (resource.getClass() != group.type()) {
+                trace.abandon();
+                String remaining = ResourceHandler.remaining(group.prefix().match(path).get());
+                return new ResourceHandler(resource, group.locator().getUriTemplate(), metadata)
+                        .match(remaining, httpMethod, mediaTypes, resourceContext, builder, Route.Trace.NONE);
+            }
+            builder.addMatchedResource(resource);
+        }
+        return found.get();
+    }
+
+    private sealed interface Branch permits Dynamic, Group {
+    }
+
+    private record Dynamic(SubResourceLocators.SubResourceLocator locator) implements Branch {
+    }
+
+    private record Group(SubResourceLocators.SubResourceLocator locator, Class<?> type, PathTemplate prefix,
+                         Map<String, List<Candidate>> methods, List<Group> groups) implements Branch {
+    }
+
+    private record Candidate(String path, PathTemplate template, ResourceRouter.ResourceMethod method) {
+    }
+}
@@ -1,5 +1,6 @@
 package com.rest;
 
+import java.util.Comparator;
 import java.util.List;
 import java.util.Optional;
 import java.util.function.BiFunction;
@@ -11,6 +12,33 @@ interface UriHandler {
 
 class UriHandlers {
 
+    public static <T extends UriHandler> Ordered<T> order(List<T> handlers) {
+        if (!handlers.stream().allMatch(h -> specificity(h).isPresent())) return new Ordered<>(List.copyOf(handlers), false);
+        return new Ordered<>(handlers.stream().sorted(Comparator.comparing(h -> specificity(h).get())).toList(), true);
+    }
+
+    static Optional<PathTemplate.Specificity> specificity(UriHandler handler) {
+        return handler.getUriTemplate() instanceof PathTemplate template ? template.getSpecificity() : Optional.empty();
+    }
+
+    public static <T extends UriHandler> Optional<T> match(String path, Ordered<T> handlers, Function<UriTemplate.MatchResult, Boolean> matchFunction) {
+        return matched(path, handlers, matchFunction).map(Result::handler);
+    }
+
+    public static <T extends UriHandler, R> Optional<R> mapMatched(String path, Ordered<T> handlers,
+                                                              BiFunction<Optional<UriTemplate.MatchResult>, T, Optional<R>> mapper) {
+        return matched(path, handlers, r -> true).flatMap(r -> mapper.apply(r.matched(), r.handler()));
+    }
+
+    private static <T extends UriHandler> Optional<Result<T>> matched(String path, Ordered<T> handlers, Function<UriTemplate.MatchResult, Boolean> matchFunction) {
+        if (!handlers.firstMatchWins()) return matched(path, handlers.handlers(), matchFunction);
+        for (T handler : handlers.handlers()) {
+            Result<T> result = new Result<>(handler.getUriTemplate().match(path), handler, matchFunction);
+            if (result.isMatched()) return Optional.of(result);
+        }
+        return Optional.empty();
+    }
+
     public static <T extends UriHandler> Optional<T> match(String path, List<T> handlers, Function<UriTemplate.MatchResult, Boolean> matchFunction) {
         return matched(path, handlers, matchFunction).map(Result::handler);
     }
@@ -26,6 +54,9 @@ class UriHandlers {
                 .findFirst();
     }
 
+    record Ordered<T extends UriHandler>(List<T> handlers, boolean firstMatchWins) {
+    }
+
     private record Result<T extends UriHandler>(Optional<UriTemplate.MatchResult> matched,
                                                T handler, Function<UriTemplate.MatchResult, Boolean> matchFunction) implements Comparable<Result<T>> {
 
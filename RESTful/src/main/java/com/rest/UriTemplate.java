@@ -19,24 +19,172 @@ interface UriTemplate {
 class PathTemplate implements UriTemplate {
 
 
+    private static final Pattern SEGMENT_SAFE_PATTERN = Pattern.compile("(?:\\w|-|\\\\[dws]|\\[(?:\\w-\\w|\\w)*-?]|[+*?|])+");
+    private static final String REGEX_META_CHARACTERS = "\\.[]{}()*+?^$|";
+    private static final int[] NO_BOUNDS = new int[0];
+
     private final Pattern pattern;
-    private final PathVariables pathVariables = new PathVariables();
+    private final PathVariables pathVariables;
     private final int variableGroupStarFrom;
+    private final Specificity specificity;
+    private final Optional<List<Segment>> segments;
+    private final Optional<String> firstSegment;
+    private final Optional<Scanner> scanner;
+    private final boolean fixedLiterals;
+    private final Analysis analysis;
 
     public PathTemplate(String template) {
-        pattern = Pattern.compile(group(pathVariables.template(template)) + "(/.*)?");
+        this(analyse(template));
+    }
+
+    PathTemplate(Analysis analysis) {
+        this.analysis = analysis;
+        pathVariables = new PathVariables(analysis.variables(), analysis.specificPatterns());
+        pattern = analysis.literals().isPresent() ? null : Pattern.compile(analysis.regex());
         variableGroupStarFrom = 2;
+        specificity = analysis.specificity();
+        segments = analysis.segments();
+        firstSegment = analysis.firstSegment();
+        scanner = analysis.literals().map(literals -> new Scanner(literals.toArray(String[]::new)));
+        fixedLiterals = analysis.fixedLiterals();
+    }
+
+    static Analysis analyse(String template) {
+        PathVariables pathVariables = new PathVariables();
+        String regex = group(pathVariables.template(template)) + "(/.*)?";
+        return new Analysis(template, regex, List.copyOf(pathVariables.variables), pathVariables.specificPatternCount,
+                new Specificity(template.length() - PathVariables.VARIABLE.matcher(template).results().mapToInt(r -> r.group().length()).sum(),
+                        pathVariables.variables.size(), pathVariables.specificPatternCount),
+                segments(template), firstSegment(template), Scanner.literals(template),
+                PathVariables.VARIABLE.splitAsStream(template).allMatch(PathTemplate::isFixedLength));
+    }
+
+    Analysis getAnalysis() {
+        return analysis;
+    }
+
+    Optional<Specificity> getSpecificity() {
+        return fixedLiterals ? Optional.of(specificity) : Optional.empty();
+    }
+
+    Optional<List<Segment>> getSegments() {
+        return segments;
+    }
+
+    Optional<String> getFirstSegment() {
+        return firstSegment;
+    }
+
+    List<String> getVariables() {
+        return Collections.unmodifiableList(pathVariables.variables);
+    }
+
+    private static Optional<String> firstSegment(String template) {
+        if (!template.startsWith("/")) return Optional.empty();
+        int end = template.indexOf('/', 1);
+        String segment = template.substring(1, end < 0 ? template.length() : end);
+        if (segment.chars().anyMatch(c -> REGEX_META_CHARACTERS.indexOf(c) >= 0)) return Optional.empty();
+        return Optional.of(segment);
+    }
+
+    private static Optional<List<Segment>> segments(String template) {
+        List<Segment> segments = new ArrayList<>();
+        for (String segment : template.split("/", -1)) {
+            Matcher variable = PathVariables.VARIABLE.matcher(segment);
+            if (variable.matches()) {
+                String variablePattern = variable.group(PathVariables.variablePatternGroup);
+                if (variablePattern == null) segments.add(new Segment(Segment.Kind.PARAMETER, null));
+                else if (SEGMENT_SAFE_PATTERN.matcher(variablePattern).matches())
+                    segments.add(new Segment(Segment.Kind.REGEX_PARAMETER, variablePattern));
+                else return Optional.empty();
+            } else {
+                if (segment.chars().anyMatch(c -> REGEX_META_CHARACTERS.indexOf(c) >= 0)) return Optional.empty();
+                segments.add(new Segment(Segment.Kind.LITERAL, segment));
+            }
+        }
+        return Optional.of(segments);
     }
 
 
     @Override
     public Optional<MatchResult> match(String path) {
+        if (scanner.isPresent()) return scanner.get().match(path);
         Matcher matcher = pattern.matcher(path);
         if (!matcher.matches()) return Optional.empty();
-        return Optional.of(new PathMatchResult(matcher, pathVariables));
+        int[] bounds = pathVariables.variables.isEmpty() ? NO_BOUNDS : new int[pathVariables.variables.size() * 2];
+        for (int i = 0; i < pathVariables.variables.size(); i++) {
+            bounds[i * 2] = matcher.start(variableGroupStarFrom + i);
+            bounds[i * 2 + 1] = matcher.end(variableGroupStarFrom + i);
+        }
+        return Optional.of(new PathMatchResult(path, matcher.end(1), bounds));
     }
 
-    class PathVariables implements Comparable<PathVariables> {
+    private static boolean isFixedLength(String literal) {
+        return literal.chars().allMatch(c -> c == '.' || REGEX_META_CHARACTERS.indexOf(c) < 0);
+    }
+
+    private class Scanner {
+        private final String[] literals;
+
+        private Scanner(String[] literals) {
+            this.literals = literals;
+        }
+
+        static Optional<List<String>> literals(String text) {
+            List<String> literals = new ArrayList<>();
+            int position = 0;
+            for (java.util.regex.MatchResult variable : PathVariables.VARIABLE.matcher(text).results().toList()) {
+                if (variable.group(PathVariables.variablePatternGroup) != null) return Optional.empty();
+                literals.add(text.substring(position, variable.start()));
+                position = variable.end();
+            }
+            literals.add(text.substring(position));
+            if (!literals.stream().allMatch(PathTemplate::isFixedLength)) return Optional.empty();
+            return Optional.of(List.copyOf(literals));
+        }
+
+        Optional<MatchResult> match(String path) {
+            int[] bounds = literals.length == 1 ? NO_BOUNDS : new int[(literals.length - 1) * 2];
+            int end = scan(path, 0, 0, bounds);
+            if (end < 0) return Optional.empty();
+            return Optional.of(new PathMatchResult(path, end, bounds));
+        }
+
+        private int scan(String path, int literal, int position, int[] bounds) {
+            if (!matches(path, position, literals[literal])) return -1;
+            position += literals[literal].length();
+            if (literal == literals.length - 1) return isRemaining(path, position) ? position : -1;
+            for (int end = position + 1; end <= path.length() && path.charAt(end - 1) != '/'; end++) {
+                bounds[literal * 2] = position;
+                bounds[literal * 2 + 1] = end;
+                int matched = scan(path, literal + 1, end, bounds);
+                if (matched >= 0) return matched;
+            }
+            return -1;
+        }
+
+        private static boolean matches(String path, int position, String literal) {
+            if (path.length() - position < literal.length()) return false;
+            for (int i = 0; i < literal.length(); i++) {
+                char c = literal.charAt(i);
+                if (c == '.' ? isLineTerminator(path.charAt(position + i)) : c != path.charAt(position + i)) return false;
+            }
+            return true;
+        }
+
+        private static boolean isRemaining(String path, int position) {
+            if (position == path.length()) return true;
+            if (path.charAt(position) != '/') return false;
+            for (int i = position; i < path.length(); i++) if (isLineTerminator(path.charAt(i))) return false;
+            return true;
+        }
+
+        private static boolean isLineTerminator(char c) {
+            return c == '\n' || c == '\r' || c == '\u0085' || c == '\u2028' || c == '\u2029';
+        }
+    }
+
+    static class PathVariables implements Comparable<PathVariables> {
         private static final String leftBracket = "\\{";
         private static final String rightBracket = "}";
         private static final String variableName = "\\w[\\w\\.-]*";
@@ -49,8 +197,17 @@ class PathTemplate implements UriTemplate {
         private static final String defaultVariablePattern = "([^/]+?)";
 
 
-        private final List<String> variables = new ArrayList<>();
-        private int specificPatternCount = 0;
+        private final List<String> variables;
+        private int specificPatternCount;
+
+        PathVariables() {
+            this(new ArrayList<>(), 0);
+        }
+
+        PathVariables(List<String> variables, int specificPatternCount) {
+            this.variables = variables;
+            this.specificPatternCount = specificPatternCount;
+        }
 
         private String template(String template) {
             return VARIABLE.matcher(template).replaceAll(this::replace);
@@ -66,15 +223,15 @@ class PathTemplate implements UriTemplate {
             variables.add(variableName);
             if (variablePattern != null) {
                 specificPatternCount++;
-                return group(variablePattern);
+                return Matcher.quoteReplacement(group(variablePattern));
             }
             return defaultVariablePattern;
         }
 
-        public Map<String, String> extract(Matcher matcher) {
+        public Map<String, String> extract(String path, int[] bounds) {
             Map<String, String> parameters = new HashMap<>();
             for (int i = 0; i < variables.size(); i++) {
-                parameters.put((variables.get(i)), matcher.group(variableGroupStarFrom + i));
+                parameters.put(variables.get(i), bounds[i * 2] < 0 ? null : path.substring(bounds[i * 2], bounds[i * 2 + 1]));
             }
             return parameters;
         }
@@ -90,31 +247,40 @@ class PathTemplate implements UriTemplate {
 
 
     private class PathMatchResult implements MatchResult {
-        private final Matcher matcher;
-        private final Map<String, String> parameters;
+        private final String path;
+        private final int matchedEnd;
+        private final int[] bounds;
+        private Map<String, String> parameters;
         private int matchLiteralCount;
         private PathVariables pathVariables;
 
-        public PathMatchResult(Matcher matcher, PathVariables pathVariables) {
-            this.matcher = matcher;
-            this.pathVariables = pathVariables;
-            this.parameters = pathVariables.extract(matcher);
-            matchLiteralCount = matcher.group(1).length() - parameters.values().stream().map(String::length)
-                    .reduce(0, Integer::sum);
+        public PathMatchResult(String path, int matchedEnd, int[] bounds) {
+            this.path = path;
+            this.matchedEnd = matchedEnd;
+            this.bounds = bounds;
+            this.pathVariables = PathTemplate.this.pathVariables;
+            matchLiteralCount = fixedLiterals ? specificity.literals() : matchedEnd - parameterLength();
+        }
+
+        private int parameterLength() {
+            int length = 0;
+            for (int i = 0; i < bounds.length; i += 2) if (bounds[i] >= 0) length += bounds[i + 1] - bounds[i];
+            return length;
         }
 
         @Override
         public String getMatched() {
-            return matcher.group(1);
+            return path.substring(0, matchedEnd);
         }
 
         @Override
         public String getRemaining() {
-            return matcher.group(matcher.groupCount());
+            return matchedEnd == path.length() ? null : path.substring(matchedEnd);
         }
 
         @Override
         public Map<String, String> getMatchedPathParameters() {
+            if (parameters == null) parameters = pathVariables.extract(path, bounds);
             return parameters;
         }
 
@@ -127,6 +293,24 @@ class PathTemplate implements UriTemplate {
         }
     }
 
+    // everything the constructor derives from the template text, so a snapshot can rebuild it without re-parsing
+    record Analysis(String template, String regex, List<String> variables, int specificPatterns, Specificity specificity,
+                    Optional<List<Segment>> segments, Optional<String> firstSegment, Optional<List<String>> literals, boolean fixedLiterals) {
+    }
+
+    record Segment(Kind kind, String value) {
+        enum Kind {LITERAL, PARAMETER, REGEX_PARAMETER}
+    }
+
+    record Specificity(int literals, int variables, int specificPatterns) implements Comparable<Specificity> {
+        @Override
+        public int compareTo(Specificity o) {
+            if (literals != o.literals) return Integer.compare(o.literals, literals);
+            if (variables != o.variables) return Integer.compare(o.variables, variables);
+            return Integer.compare(o.specificPatterns, specificPatterns);
+        }
+    }
+
     private static String group(String pattern) {
         return "(" + pattern + ")";
     }
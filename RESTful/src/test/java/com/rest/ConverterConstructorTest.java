@@ -28,10 +28,31 @@ class ConverterConstructorTest {
     void should_not_convert_if_no_constructor_factory() {
         assertEquals(Optional.empty(), ConverterFactory.convert(NoConverter.class, "Factory"));
     }
+
+    @Test
+    void should_not_convert_if_converter_constructor_rejects_value() {
+        assertEquals(Optional.empty(), ConverterConstructor.convert(BigDecimal.class, "not a number"));
+        assertEquals(Optional.of(new BigDecimal("1")), ConverterConstructor.convert(BigDecimal.class, "1"));
+    }
+
+    @Test
+    void should_not_convert_if_constructor_factory_rejects_value() {
+        assertEquals(Optional.empty(), ConverterFactory.convert(Converter.class, "Unknown"));
+    }
+
+    @Test
+    void should_not_convert_via_instance_value_of_method() {
+        assertEquals(Optional.empty(), ConverterFactory.convert(InstanceConverter.class, "Factory"));
+    }
 }
 
 class NoConverter {
     NoConverter valueOf(String value) {
         return new NoConverter();
     }
-}
\ No newline at end of file
+}
+class InstanceConverter {
+    public InstanceConverter valueOf(String value) {
+        return new InstanceConverter();
+    }
+}
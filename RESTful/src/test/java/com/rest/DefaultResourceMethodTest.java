@@ -74,6 +74,48 @@ class DefaultResourceMethodTest extends InjectableCallerTest {
         }
     }
 
+    @Test
+    void should_inject_query_parameter_from_query_not_path() throws NoSuchMethodException {
+        parameters.put("param", List.of("path"));
+        queryParameters.put("param", List.of("query"));
+
+        callInjectable("getQueryParam", String.class);
+
+        assertEquals(List.of("query"), lastCall.arguments());
+    }
+
+    @Test
+    void should_inject_all_values_of_query_parameter_to_list() throws NoSuchMethodException {
+        queryParameters.put("param", List.of("1", "2", "3"));
+
+        callInjectable("getQueryParams", List.class);
+
+        assertEquals(List.of(List.of(1, 2, 3)), lastCall.arguments());
+    }
+
+    @Test
+    void should_inject_empty_list_if_query_parameter_missing() throws NoSuchMethodException {
+        callInjectable("getQueryParams", List.class);
+
+        assertEquals(List.of(List.of()), lastCall.arguments());
+    }
+
+    @Test
+    void should_inject_default_value_if_query_parameter_missing() throws NoSuchMethodException {
+        callInjectable("getDefaultQueryParam", int.class);
+
+        assertEquals(List.of(7), lastCall.arguments());
+    }
+
+    @Test
+    void should_inject_query_parameter_instead_of_default_value() throws NoSuchMethodException {
+        queryParameters.put("param", List.of("8"));
+
+        callInjectable("getDefaultQueryParam", int.class);
+
+        assertEquals(List.of(8), lastCall.arguments());
+    }
+
     @Override
     protected void callInjectable(String method, Class<?> type) throws NoSuchMethodException {
         DefaultResourceMethod resourceMethod = getResourceMethod(method, type);
@@ -126,6 +168,24 @@ class DefaultResourceMethodTest extends InjectableCallerTest {
         @GET
         String getPathParam(@PathParam("param") Converter value);
 
+        @GET
+        String getPathParam(@PathParam("param") long value);
+
+        @GET
+        String getPathParam(@PathParam("param") Long value);
+
+        @GET
+        String getPathParam(@PathParam("param") Integer value);
+
+        @GET
+        String getPathParam(@PathParam("param") Character value);
+
+        @GET
+        String getPathParam(@PathParam("param") Double value);
+
+        @GET
+        String getPathParam(@PathParam("param") Boolean value);
+
         @GET
         String getQueryParam(@QueryParam("param") String value);
 
@@ -156,6 +216,30 @@ class DefaultResourceMethodTest extends InjectableCallerTest {
         @GET
         String getQueryParam(@QueryParam("param") Converter value);
 
+        @GET
+        String getQueryParam(@QueryParam("param") long value);
+
+        @GET
+        String getQueryParam(@QueryParam("param") Long value);
+
+        @GET
+        String getQueryParam(@QueryParam("param") Integer value);
+
+        @GET
+        String getQueryParam(@QueryParam("param") Character value);
+
+        @GET
+        String getQueryParam(@QueryParam("param") Double value);
+
+        @GET
+        String getQueryParam(@QueryParam("param") Boolean value);
+
+        @GET
+        String getQueryParams(@QueryParam("param") List<Integer> values);
+
+        @GET
+        String getDefaultQueryParam(@QueryParam("param") @DefaultValue("7") int value);
+
         @GET
         String getContext(@Context SomeServiceInContext service);
 
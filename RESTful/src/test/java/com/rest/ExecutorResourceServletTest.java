@@ -0,0 +1,101 @@
+package com.rest;
+
+import jakarta.servlet.Servlet;
+import jakarta.ws.rs.container.ResourceContext;
+import jakarta.ws.rs.core.MultivaluedHashMap;
+import jakarta.ws.rs.core.Response;
+import jakarta.ws.rs.ext.Providers;
+import jakarta.ws.rs.ext.RuntimeDelegate;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.List;
+import java.util.concurrent.*;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+public class ExecutorResourceServletTest extends ServletTest {
+    private static final int REQUESTS = 1000;
+
+    private ResourceRouter router;
+    private ResourceContext resourceContext;
+    private ExecutorService executor;
+
+    @Override
+    protected Servlet getServlet() {
+        Runtime runtime = mock(Runtime.class);
+        router = mock(ResourceRouter.class);
+        resourceContext = mock(ResourceContext.class);
+        when(runtime.createResourceContext(any(), any())).thenReturn(resourceContext);
+        when(runtime.getResourceRouter()).thenReturn(router);
+        when(runtime.getProviders()).thenReturn(mock(Providers.class));
+        executor = ResourceServlet.virtualThreadPerRequest().map(ExecutorService.class::cast).orElseGet(Executors::newCachedThreadPool);
+        return new ResourceServlet(runtime, executor);
+    }
+
+    @AfterEach
+    void shutdown() {
+        executor.shutdownNow();
+    }
+
+    @Test
+    void should_dispatch_on_executor_thread() {
+        when(router.dispatch(any(), eq(resourceContext))).thenAnswer(invocation -> response(Thread.currentThread().getName().startsWith("qtp")
+                ? Response.Status.INTERNAL_SERVER_ERROR : Response.Status.OK));
+
+        assertEquals(Response.Status.OK.getStatusCode(), get("/test").statusCode());
+    }
+
+    @Test
+    void should_respond_service_unavailable_and_skip_writing_if_dispatch_outlasts_async_timeout() throws Exception {
+        RuntimeDelegate delegate = mock(RuntimeDelegate.class);
+        RuntimeDelegate.setInstance(delegate);
+        when(delegate.createResponseBuilder()).thenAnswer(invocation -> new StubResponseBuilder());
+        asyncTimeout = 100;
+        CountDownLatch released = new CountDownLatch(1);
+        OutBoundResponse late = response(Response.Status.OK);
+        when(router.dispatch(any(), eq(resourceContext))).thenAnswer(invocation -> {
+            released.await(10, TimeUnit.SECONDS);
+            return late;
+        });
+
+        assertEquals(Response.Status.SERVICE_UNAVAILABLE.getStatusCode(), get("/test").statusCode());
+        released.countDown();
+        executor.shutdown();
+        assertTrue(executor.awaitTermination(10, TimeUnit.SECONDS));
+
+        verify(late, never()).getStatus();
+    }
+
+    @Test
+    void should_not_exhaust_container_threads_if_requests_blocked_in_resource_methods() throws Exception {
+        CountDownLatch blocked = new CountDownLatch(REQUESTS);
+        when(router.dispatch(any(), eq(resourceContext))).thenAnswer(invocation -> {
+            blocked.countDown();
+            return response(blocked.await(30, TimeUnit.SECONDS) ? Response.Status.OK : Response.Status.SERVICE_UNAVAILABLE);
+        });
+
+        HttpClient client = HttpClient.newHttpClient();
+        HttpRequest request = HttpRequest.newBuilder(path("/test")).GET().build();
+        List<CompletableFuture<HttpResponse<Void>>> responses = IntStream.range(0, REQUESTS)
+                .mapToObj(i -> client.sendAsync(request, HttpResponse.BodyHandlers.discarding()))
+                .toList();
+
+        for (CompletableFuture<HttpResponse<Void>> response : responses)
+            assertEquals(Response.Status.OK.getStatusCode(), response.get(60, TimeUnit.SECONDS).statusCode());
+    }
+
+    private static OutBoundResponse response(Response.Status status) {
+        OutBoundResponse response = mock(OutBoundResponse.class);
+        when(response.getStatus()).thenReturn(status.getStatusCode());
+        when(response.getHeaders()).thenReturn(new MultivaluedHashMap<>());
+        return response;
+    }
+}
@@ -1,10 +1,14 @@
 package com.rest;
 
 import jakarta.ws.rs.container.ResourceContext;
+import jakarta.ws.rs.core.GenericEntity;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 
-import static org.junit.jupiter.api.Assertions.assertEquals;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.same;
 import static org.mockito.Mockito.*;
 
@@ -31,6 +35,15 @@ class HeadResourceMethodTest {
         verify(method).call(same(resourceContext), same(uriInfoBuilder));
     }
 
+    @Test
+    void should_close_stream_returned_from_method() {
+        AtomicBoolean closed = new AtomicBoolean();
+        when(method.call(same(resourceContext), same(uriInfoBuilder))).thenAnswer(invocation -> new GenericEntity<>(Stream.of("a").onClose(() -> closed.set(true)), Stream.class));
+
+        assertNull(new HeadResourceMethod(method).call(resourceContext, uriInfoBuilder));
+        assertTrue(closed.get());
+    }
+
     @Test
     void should_delegate_to_method_for_uri_template() {
         HeadResourceMethod headResourceMethod = new HeadResourceMethod(method);
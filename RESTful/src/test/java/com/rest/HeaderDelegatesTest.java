@@ -0,0 +1,65 @@
+package com.rest;
+
+import jakarta.ws.rs.core.MediaType;
+import jakarta.ws.rs.ext.RuntimeDelegate;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+public class HeaderDelegatesTest {
+    private RuntimeDelegate runtime;
+    private HeaderDelegates headers;
+
+    @BeforeEach
+    void setUp() {
+        runtime = runtimeDelegate("text/plain");
+        RuntimeDelegate.setInstance(runtime);
+        headers = new HeaderDelegates();
+    }
+
+    @Test
+    void should_create_header_delegate_once_per_value_class() {
+        assertEquals("text/plain", headers.toString(MediaType.TEXT_PLAIN_TYPE));
+        assertEquals("text/plain", headers.toString(MediaType.APPLICATION_JSON_TYPE));
+
+        verify(runtime, times(1)).createHeaderDelegate(eq(MediaType.class));
+    }
+
+    @Test
+    void should_create_header_delegate_again_if_runtime_delegate_changed() {
+        headers.toString(MediaType.TEXT_PLAIN_TYPE);
+        RuntimeDelegate.setInstance(runtimeDelegate("changed"));
+
+        assertEquals("changed", headers.toString(MediaType.TEXT_PLAIN_TYPE));
+    }
+
+    @Test
+    void should_not_convert_encoded_header_value_with_header_delegate() {
+        assertEquals("no-cache", headers.toString(OutBoundResponse.encoded("no-cache")));
+        assertEquals("max-age=60", headers.toString(OutBoundResponse.encoded("max-age=60".getBytes(StandardCharsets.ISO_8859_1))));
+
+        verify(runtime, never()).createHeaderDelegate(any());
+    }
+
+    private static RuntimeDelegate runtimeDelegate(String value) {
+        RuntimeDelegate runtime = mock(RuntimeDelegate.class);
+        when(runtime.createHeaderDelegate(eq(MediaType.class))).thenReturn(new RuntimeDelegate.HeaderDelegate<>() {
+            @Override
+            public MediaType fromString(String value) {
+                return null;
+            }
+
+            @Override
+            public String toString(MediaType mediaType) {
+                return value;
+            }
+        });
+        return runtime;
+    }
+}
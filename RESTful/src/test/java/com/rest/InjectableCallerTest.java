@@ -6,6 +6,7 @@ import jakarta.ws.rs.core.UriInfo;
 import jakarta.ws.rs.ext.RuntimeDelegate;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DynamicTest;
+import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.TestFactory;
 
 import java.lang.reflect.Method;
@@ -17,15 +18,16 @@ import java.util.Optional;
 import java.util.stream.Collectors;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.mockito.ArgumentMatchers.eq;
-import static org.mockito.Mockito.mock;
-import static org.mockito.Mockito.when;
+import static org.mockito.Mockito.*;
 
 public abstract class InjectableCallerTest {
     protected ResourceContext resourceContext;
     protected UriInfoBuilder builder;
     protected UriInfo uriInfo;
     protected MultivaluedHashMap<String, String> parameters;
+    protected MultivaluedHashMap<String, String> queryParameters;
     protected LastCall lastCall;
     protected SomeServiceInContext service;
     protected Object resource;
@@ -43,6 +45,8 @@ public abstract class InjectableCallerTest {
         when(builder.createUriInfo()).thenReturn(uriInfo);
         parameters = new MultivaluedHashMap<>();
         when(uriInfo.getPathParameters()).thenReturn(parameters);
+        queryParameters = new MultivaluedHashMap<>();
+        when(uriInfo.getQueryParameters()).thenReturn(queryParameters);
         when(resourceContext.getResource(eq(SomeServiceInContext.class))).thenReturn(service);
 
 
@@ -68,6 +72,12 @@ public abstract class InjectableCallerTest {
                 new InjectableTypeTestCase(byte.class, "-1", ((byte) -1)),
                 new InjectableTypeTestCase(char.class, "c", 'c'),
                 new InjectableTypeTestCase(int.class, "1", 1),
+                new InjectableTypeTestCase(long.class, "9876543210", 9876543210L),
+                new InjectableTypeTestCase(Long.class, "-2", -2L),
+                new InjectableTypeTestCase(Integer.class, "3", 3),
+                new InjectableTypeTestCase(Character.class, "d", 'd'),
+                new InjectableTypeTestCase(Double.class, "1.5", 1.5),
+                new InjectableTypeTestCase(Boolean.class, "true", true),
                 new InjectableTypeTestCase(Converter.class, "Factory", Converter.Factory),
                 new InjectableTypeTestCase(BigDecimal.class, "12345", new BigDecimal("12345"))
         );
@@ -106,7 +116,7 @@ public abstract class InjectableCallerTest {
 
 
     private void verifyResourceMethod(String method, Class<?> type, String paramString, Object paramValue) throws NoSuchMethodException {
-        parameters.put("param", List.of(paramString));
+        (method.equals("getQueryParam") ? queryParameters : parameters).put("param", List.of(paramString));
 
 
         callInjectable(method, type);
@@ -115,6 +125,14 @@ public abstract class InjectableCallerTest {
         assertEquals(List.of(paramValue), lastCall.arguments());
     }
 
+    @Test
+    void should_fail_once_without_falling_through_if_wrapper_value_malformed() {
+        parameters.put("param", List.of("not a number"));
+
+        assertThrows(RuntimeException.class, () -> callInjectable("getPathParam", Integer.class));
+        verify(resourceContext, never()).getResource(eq(Integer.class));
+    }
+
     protected abstract void callInjectable(String method, Class<?> type) throws NoSuchMethodException;
 
     protected abstract Object initResource();
@@ -0,0 +1,77 @@
+package com.rest;
+
+import jakarta.ws.rs.Produces;
+import jakarta.ws.rs.core.GenericType;
+import jakarta.ws.rs.core.MediaType;
+import jakarta.ws.rs.ext.MessageBodyWriter;
+import jakarta.ws.rs.ext.Providers;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.lang.annotation.Annotation;
+import java.lang.reflect.Type;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+public class MessageBodyWritersTest {
+    private static final Type STRINGS = new GenericType<List<String>>() {
+    }.getType();
+
+    private Providers providers;
+    private MessageBodyWriter<?> writer;
+    private MessageBodyWriters writers;
+
+    @BeforeEach
+    void setUp() {
+        providers = mock(Providers.class);
+        writer = mock(MessageBodyWriter.class);
+        when(providers.getMessageBodyWriter(eq(List.class), any(), any(), any())).thenAnswer(invocation -> writer);
+        writers = new MessageBodyWriters(providers);
+    }
+
+    @Test
+    void should_look_up_writer_once_for_same_type_annotations_and_media_type() throws NoSuchMethodException {
+        Annotation[] annotations = Resource.class.getMethod("get").getAnnotations();
+
+        assertSame(writer, writers.get(List.class, STRINGS, annotations, MediaType.TEXT_PLAIN_TYPE));
+        assertSame(writer, writers.get(List.class, new GenericType<List<String>>() {
+        }.getType(), Resource.class.getMethod("get").getAnnotations(), new MediaType("text", "plain")));
+
+        verify(providers, times(1)).getMessageBodyWriter(any(), any(), any(), any());
+    }
+
+    @Test
+    void should_look_up_writer_again_for_other_media_type_or_annotations() throws NoSuchMethodException {
+        writers.get(List.class, STRINGS, new Annotation[0], MediaType.TEXT_PLAIN_TYPE);
+        writers.get(List.class, STRINGS, new Annotation[0], MediaType.APPLICATION_JSON_TYPE);
+        writers.get(List.class, STRINGS, Resource.class.getMethod("get").getAnnotations(), MediaType.TEXT_PLAIN_TYPE);
+        writers.get(List.class, List.class, new Annotation[0], MediaType.TEXT_PLAIN_TYPE);
+
+        verify(providers, times(4)).getMessageBodyWriter(any(), any(), any(), any());
+    }
+
+    @Test
+    void should_cache_missing_writer() {
+        assertNull(writers.get(Integer.class, Integer.class, new Annotation[0], MediaType.TEXT_PLAIN_TYPE));
+        assertNull(writers.get(Integer.class, Integer.class, new Annotation[0], MediaType.TEXT_PLAIN_TYPE));
+
+        verify(providers, times(1)).getMessageBodyWriter(any(), any(), any(), any());
+    }
+
+    @Test
+    void should_pass_original_annotations_to_providers() {
+        writers.get(List.class, STRINGS, null, null);
+
+        verify(providers).getMessageBodyWriter(eq(List.class), eq(STRINGS), isNull(), isNull());
+    }
+
+    static class Resource {
+        @Produces(MediaType.TEXT_PLAIN)
+        public String get() {
+            return "resource";
+        }
+    }
+}
@@ -0,0 +1,115 @@
+package com.rest;
+
+import com.rest.application.Greetings;
+import jakarta.ws.rs.GET;
+import jakarta.ws.rs.Path;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.reflect.Method;
+import java.util.Arrays;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class MethodInvokerTest {
+
+    @ParameterizedTest(name = "{0}")
+    @CsvSource(textBlock = """
+            none,       0
+            one,        1
+            two,        2
+            three,      3
+            four,       4
+            nothing,    1
+            """)
+    void should_invoke_same_as_reflection(String name, int count) throws Throwable {
+        Method method = Arrays.stream(Methods.class.getMethods()).filter(m -> m.getName().equals(name)).findFirst().get();
+        Object[] arguments = Arrays.copyOf(new Object[]{"a", 1, 'c', 2L}, count);
+        Methods target = new Methods();
+
+        Object expected = MethodInvoker.Invocation.reflective(method).invoke(target, arguments);
+        String called = target.called;
+        target.called = null;
+
+        assertEquals(expected, MethodInvoker.Invocation.bind(method).invoke(target, arguments));
+        assertEquals(called, target.called);
+    }
+
+    @Test
+    void should_throw_exception_from_method_without_wrapping() throws NoSuchMethodException {
+        Method method = Methods.class.getMethod("fail", String.class);
+
+        IllegalStateException exception = assertThrows(IllegalStateException.class,
+                () -> MethodInvoker.Invocation.bind(method).invoke(new Methods(), new Object[]{"failed"}));
+        assertEquals("failed", exception.getMessage());
+    }
+
+    @Test
+    void should_generate_function_for_class_in_other_package() throws Throwable {
+        Method method = Greetings.class.getMethod("greet", String.class);
+        MethodHandles.Lookup lookup = MethodHandles.privateLookupIn(Greetings.class, MethodHandles.lookup());
+
+        MethodInvoker.Invocation invocation = MethodInvoker.Invocation.generated(lookup, lookup.unreflect(method), method).get();
+
+        assertEquals("hello world", invocation.invoke(new Greetings(), new Object[]{"world"}));
+        assertEquals("hello world", MethodInvoker.Invocation.bind(method).invoke(new Greetings(), new Object[]{"world"}));
+    }
+
+    @Test
+    void should_use_invokers_generated_for_resource_class() throws Throwable {
+        Method method = Resource.class.getMethod("get", int.class, String.class);
+
+        assertEquals(Set.of("get(int,java.lang.String)", "get()"), MethodInvoker.GENERATED.get(Resource.class).keySet());
+        assertEquals("1a", MethodInvoker.Invocation.bind(method).invoke(new Resource(), new Object[]{1, "a"}));
+        assertTrue(MethodInvoker.GENERATED.get(Methods.class).isEmpty());
+    }
+
+    @Path("/resource")
+    static class Resource {
+        @GET
+        public String get() {
+            return "resource";
+        }
+
+        @GET
+        @Path("/{id}")
+        public String get(int id, String name) {
+            return id + name;
+        }
+    }
+
+    static class Methods {
+        private String called;
+
+        public String none() {
+            return "none";
+        }
+
+        public String one(String first) {
+            return first;
+        }
+
+        public String two(String first, int second) {
+            return first + second;
+        }
+
+        public int three(String first, int second, char third) {
+            return (first + second + third).length();
+        }
+
+        public String four(String first, int second, char third, long fourth) {
+            return first + second + third + fourth;
+        }
+
+        public void nothing(String first) {
+            called = first;
+        }
+
+        public String fail(String message) {
+            throw new IllegalStateException(message);
+        }
+    }
+}
@@ -0,0 +1,19 @@
+package com.rest;
+
+import org.junit.jupiter.api.Nested;
+
+public class NonBlockingResourceServletTest extends ResourceServletTest {
+
+    @Override
+    protected ResourceServlet resourceServlet() {
+        return super.resourceServlet().nonBlocking();
+    }
+
+    @Nested
+    class NonBlockingRespondForOutboundResponse extends RespondForOutboundResponse {
+    }
+
+    @Nested
+    class NonBlockingRespondForCompletionStage extends RespondForCompletionStage {
+    }
+}
@@ -4,7 +4,10 @@ import org.junit.jupiter.api.Test;
 import org.junit.jupiter.params.ParameterizedTest;
 import org.junit.jupiter.params.provider.CsvSource;
 
+import java.util.Arrays;
+import java.util.Map;
 import java.util.Optional;
+import java.util.stream.Collectors;
 
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -45,6 +48,36 @@ public class PathTemplateTest {
         assertEquals("1", result.getMatchedPathParameters().get("id"));
     }
 
+    @ParameterizedTest
+    @CsvSource(textBlock = """
+            /users/{id}/orders/{orderId},   /users/1/orders/2,          /users/1/orders/2,  ,           id=1;orderId=2
+            /users/{id}/orders/{orderId},   /users/1/orders/2/items,    /users/1/orders/2,  /items,     id=1;orderId=2
+            /files/{name}.{extension},      /files/a.b.c,               /files/a.b.c,       ,           name=a;extension=b.c
+            /files/{name}-{version},        /files/a-b-c/raw,           /files/a-b-c,       /raw,       name=a;version=b-c
+            /missing.messages,              /missing-messages/1,        /missing-messages,  /1,
+            '',                             /users,                     '',                 /users,
+            /message/,                      /message//1,                /message/,          /1,
+            """)
+    void should_match_template_without_specific_pattern(String pattern, String path, String matched, String remaining, String parameters) {
+        UriTemplate.MatchResult result = new PathTemplate(pattern).match(path).get();
+        assertEquals(matched, result.getMatched());
+        assertEquals(remaining, result.getRemaining());
+        assertEquals(parameters == null ? Map.of() : Arrays.stream(parameters.split(";")).map(p -> p.split("="))
+                .collect(Collectors.toMap(p -> p[0], p -> p[1])), result.getMatchedPathParameters());
+    }
+
+    @ParameterizedTest
+    @CsvSource({"/users/{id},/users/", "/users/{id},/users", "/users/{id}/orders,/users/1/2/orders", "/message/,/message", "/users,/users/1\\n"})
+    void should_not_match_template_without_specific_pattern(String pattern, String path) {
+        assertTrue(new PathTemplate(pattern).match(path.replace("\\n", "\n")).isEmpty());
+    }
+
+    @Test
+    void should_extract_path_parameters_once_when_first_asked() {
+        UriTemplate.MatchResult result = new PathTemplate("/users/{id}").match("/users/1").get();
+        assertSame(result.getMatchedPathParameters(), result.getMatchedPathParameters());
+    }
+
     @Test
     void should_throw_illegal_argument_exception_if_variable_redefined() {
         assertThrows(IllegalArgumentException.class, () -> new PathTemplate("/users/{id:[0-9]+}/{id}"));
@@ -0,0 +1,109 @@
+package com.rest;
+
+import jakarta.ws.rs.DefaultValue;
+import jakarta.ws.rs.QueryParam;
+import jakarta.ws.rs.core.MultivaluedHashMap;
+import jakarta.ws.rs.core.UriInfo;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+
+import java.net.URI;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+public class QueryParametersTest {
+
+    @ParameterizedTest(name = "{0}")
+    @CsvSource(textBlock = """
+            name=john,                      name,       john
+            page=1&name=john&size=10,       name,       john
+            name=john%20smith,              name,       john smith
+            name=john+smith,                name,       john smith
+            na%6De=john,                    name,       john
+            name=,                          name,       ''
+            name,                           name,       ''
+            &&name=john&,                   name,       john
+            name=a=b,                       name,       a=b
+            name=100%,                      name,       100%
+            """)
+    void should_get_decoded_value_of_query_parameter(String query, String name, String value) {
+        assertEquals(List.of(value), new QueryParameters(query).get(name));
+    }
+
+    @Test
+    void should_get_all_values_of_query_parameter_in_order() {
+        QueryParameters parameters = new QueryParameters("tag=a&page=1&tag=b&tag=c");
+
+        assertEquals(List.of("a", "b", "c"), parameters.get("tag"));
+        assertEquals("a", parameters.getFirst("tag"));
+    }
+
+    @ParameterizedTest
+    @CsvSource({"name=john,page", "'',page", "=john,''"})
+    void should_return_null_if_query_parameter_missing(String query, String name) {
+        QueryParameters parameters = new QueryParameters(query);
+
+        assertNull(parameters.get(name));
+        assertFalse(parameters.containsKey(name));
+    }
+
+    @Test
+    void should_treat_null_query_as_empty() {
+        assertTrue(new QueryParameters(null).isEmpty());
+    }
+
+    @Test
+    void should_list_all_query_parameters() {
+        QueryParameters parameters = new QueryParameters("page=1&tag=a&tag=b");
+
+        assertEquals(Map.of("page", List.of("1"), "tag", List.of("a", "b")), Map.copyOf(parameters));
+    }
+
+    @Test
+    void should_add_values_to_looked_up_query_parameter() {
+        QueryParameters parameters = new QueryParameters("tag=a");
+
+        parameters.get("tag");
+        parameters.add("tag", "b");
+        parameters.add("page", "1");
+
+        assertEquals(List.of("a", "b"), parameters.get("tag"));
+        assertEquals(List.of("1"), parameters.get("page"));
+    }
+
+    @Test
+    void should_read_query_parameters_from_raw_query_of_request_uri() {
+        UriInfo uriInfo = mock(UriInfo.class);
+        when(uriInfo.getRequestUri()).thenReturn(URI.create("http://localhost/users?page=1&name=john%20smith"));
+
+        assertEquals(List.of("john smith"), QueryParameters.of(uriInfo).get("name"));
+        verify(uriInfo, never()).getQueryParameters();
+    }
+
+    @Test
+    void should_use_query_parameters_of_uri_info_if_request_uri_unknown() {
+        UriInfo uriInfo = mock(UriInfo.class);
+        MultivaluedHashMap<String, String> parameters = new MultivaluedHashMap<>();
+        when(uriInfo.getQueryParameters()).thenReturn(parameters);
+
+        assertSame(parameters, QueryParameters.of(uriInfo));
+    }
+
+    @Test
+    void should_bind_query_parameter_with_default_value_through_stub_uri_info() throws NoSuchMethodException {
+        StubUriInfoBuilder builder = new StubUriInfoBuilder();
+        builder.addMatchedResource(new Search());
+
+        assertEquals(1, new MethodInvoker(Search.class.getMethod("page", int.class)).invoke(null, builder));
+    }
+
+    public static class Search {
+        public int page(@QueryParam("page") @DefaultValue("1") int page) {
+            return page;
+        }
+    }
+}
@@ -0,0 +1,133 @@
+package com.rest;
+
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.ws.rs.GET;
+import jakarta.ws.rs.Path;
+import jakarta.ws.rs.container.ResourceContext;
+import jakarta.ws.rs.core.GenericEntity;
+import jakarta.ws.rs.core.HttpHeaders;
+import jakarta.ws.rs.ext.RuntimeDelegate;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Vector;
+import java.util.concurrent.ForkJoinPool;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+public class ResourceBootstrapTest {
+    private Runtime runtime;
+    private ResourceContext resourceContext;
+    private ForkJoinPool pool;
+
+    @BeforeEach
+    void setUp() {
+        runtime = mock(Runtime.class);
+        resourceContext = mock(ResourceContext.class);
+        pool = new ForkJoinPool(4);
+        when(resourceContext.getResource(eq(Users.class))).thenReturn(new Users());
+        when(resourceContext.getResource(eq(Orders.class))).thenReturn(new Orders());
+        when(resourceContext.getResource(eq(AllOrders.class))).thenReturn(new AllOrders());
+        when(runtime.createUriInfoBuilder(any())).thenAnswer(invocation -> new StubUriInfoBuilder());
+
+        RuntimeDelegate delegate = mock(RuntimeDelegate.class);
+        RuntimeDelegate.setInstance(delegate);
+        when(delegate.createResponseBuilder()).thenAnswer(invocation -> new StubResponseBuilder());
+    }
+
+    @AfterEach
+    void tearDown() {
+        pool.shutdown();
+    }
+
+    @Test
+    void should_build_router_dispatching_to_all_resource_classes() {
+        ResourceBootstrap.Startup startup = new ResourceBootstrap(pool).start(runtime, List.of(Users.class, Orders.class));
+
+        assertEquals("users", entity(startup.router().dispatch(request("/users"), resourceContext)));
+        assertEquals("user", entity(startup.router().dispatch(request("/users/1"), resourceContext)));
+        assertEquals("orders", entity(startup.router().dispatch(request("/orders"), resourceContext)));
+    }
+
+    @Test
+    void should_keep_registration_order_for_equally_specific_resource_classes() {
+        ResourceBootstrap.Startup startup = new ResourceBootstrap(pool).start(runtime, List.of(AllOrders.class, Orders.class));
+
+        assertEquals("all orders", entity(startup.router().dispatch(request("/orders"), resourceContext)));
+    }
+
+    @Test
+    void should_report_time_of_each_startup_phase() {
+        ResourceBootstrap.Startup startup = new ResourceBootstrap(pool).start(runtime, List.of(Users.class, Orders.class));
+
+        assertEquals(List.of("scan", "prepare", "route"), startup.phases().stream().map(ResourceBootstrap.Phase::name).toList());
+        assertTrue(startup.phases().stream().noneMatch(phase -> phase.duration().isNegative()));
+        assertEquals(startup.phases().stream().mapToLong(phase -> phase.duration().toNanos()).sum(), startup.total().toNanos());
+    }
+
+    @Test
+    void should_count_sub_resource_classes_as_prepared() {
+        ResourceBootstrap.Startup startup = new ResourceBootstrap(pool).start(runtime, List.of(Users.class, Orders.class));
+
+        assertEquals(3, startup.resourceClasses());
+    }
+
+    @Test
+    void should_throw_illegal_argument_exception_if_root_resource_not_have_path_annotation() {
+        assertThrows(IllegalArgumentException.class, () -> new ResourceBootstrap(pool).start(runtime, List.of(Users.class, User.class)));
+    }
+
+    private HttpServletRequest request(String path) {
+        HttpServletRequest request = mock(HttpServletRequest.class);
+        when(request.getServletPath()).thenReturn(path);
+        when(request.getMethod()).thenReturn("GET");
+        when(request.getHeaders(eq(HttpHeaders.ACCEPT))).thenReturn(new Vector<String>().elements());
+        return request;
+    }
+
+    private static Object entity(OutBoundResponse response) {
+        return ((GenericEntity<?>) response.getEntity()).getEntity();
+    }
+
+    @Path("/users")
+    static class Users {
+        @GET
+        public String get() {
+            return "users";
+        }
+
+        @Path("/{id}")
+        public User user() {
+            return new User();
+        }
+    }
+
+    static class User {
+        @GET
+        public String get() {
+            return "user";
+        }
+    }
+
+    @Path("/orders")
+    static class Orders {
+        @GET
+        public String get() {
+            return "orders";
+        }
+    }
+
+    @Path("/orders")
+    static class AllOrders {
+        @GET
+        public String get() {
+            return "all orders";
+        }
+    }
+}
@@ -15,10 +15,8 @@ import java.util.Optional;
 import java.util.Vector;
 
 import static org.junit.jupiter.api.Assertions.*;
-import static org.mockito.ArgumentMatchers.eq;
-import static org.mockito.ArgumentMatchers.same;
-import static org.mockito.Mockito.mock;
-import static org.mockito.Mockito.when;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
 
 public class ResourceDispatcherTest {
     private RuntimeDelegate delegate;
@@ -174,6 +172,44 @@ public class ResourceDispatcherTest {
         assertEquals(404, response.getStatus());
     }
 
+    @Test
+    void should_return_404_without_matching_if_no_root_resource_has_first_path_segment() {
+        when(request.getServletPath()).thenReturn("/orders/1");
+        UriTemplate template = spy(new PathTemplate("/users/{id}"));
+        ResourceRouter.Resource resource = mock(ResourceRouter.Resource.class);
+        when(resource.getUriTemplate()).thenReturn(template);
+
+        ResourceRouter router = new DefaultResourceRouter(runtime, List.of(resource));
+        OutBoundResponse response = router.dispatch(request, context);
+
+        assertEquals(404, response.getStatus());
+        verify(template, never()).match(any());
+    }
+
+    @Test
+    void should_prepare_resource_handlers_only_if_not_prepared_before() {
+        ResourceHandler handler = mock(ResourceHandler.class);
+        when(handler.getUriTemplate()).thenReturn(new PathTemplate("/users"));
+
+        new DefaultResourceRouter(runtime, List.of(handler), Optional.empty(), false);
+        verify(handler, never()).prepare();
+
+        new DefaultResourceRouter(runtime, List.of(handler));
+        verify(handler).prepare();
+    }
+
+    @Test
+    void should_not_share_404_response_between_requests() {
+        when(request.getServletPath()).thenReturn("/orders/1");
+        ResourceRouter router = new DefaultResourceRouter(runtime, List.of(rootResource(unMatched("/orders/1"))));
+
+        OutBoundResponse first = router.dispatch(request, context);
+        OutBoundResponse second = router.dispatch(request, context);
+
+        assertEquals(404, second.getStatus());
+        assertNotSame(first, second);
+    }
+
     @Test
     void should_return_404_if_no_resource_method_found() {
 
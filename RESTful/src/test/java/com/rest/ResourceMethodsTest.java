@@ -3,6 +3,7 @@ package com.rest;
 import jakarta.ws.rs.*;
 import jakarta.ws.rs.container.ResourceContext;
 import jakarta.ws.rs.core.GenericEntity;
+import jakarta.ws.rs.core.HttpHeaders;
 import jakarta.ws.rs.core.MediaType;
 import jakarta.ws.rs.core.Response;
 import jakarta.ws.rs.ext.RuntimeDelegate;
@@ -102,6 +103,62 @@ public class ResourceMethodsTest {
 
     }
 
+    @Test
+    void should_include_methods_of_all_matched_templates_in_options() {
+        RuntimeDelegate delegate = mock(RuntimeDelegate.class);
+        RuntimeDelegate.setInstance(delegate);
+        when(delegate.createResponseBuilder()).thenReturn(new StubResponseBuilder());
+        ResourceMethods resourceMethods = new ResourceMethods(Topics.class.getMethods());
+
+        ResourceRouter.ResourceMethod method = resourceMethods.findResourceMethods("/1234", "OPTIONS").get();
+        Response response = (Response) method.call(mock(ResourceContext.class), mock(UriInfoBuilder.class)).getEntity();
+
+        assertEquals(Set.of(HttpMethod.GET, HttpMethod.HEAD, HttpMethod.PUT, HttpMethod.OPTIONS), response.getAllowedMethods());
+    }
+
+    @Test
+    void should_only_allow_options_if_no_template_matched() {
+        RuntimeDelegate delegate = mock(RuntimeDelegate.class);
+        RuntimeDelegate.setInstance(delegate);
+        when(delegate.createResponseBuilder()).thenReturn(new StubResponseBuilder());
+        ResourceMethods resourceMethods = new ResourceMethods(Topics.class.getMethods());
+
+        ResourceRouter.ResourceMethod method = resourceMethods.findResourceMethods("/1234/comments", "OPTIONS").get();
+        Response response = (Response) method.call(mock(ResourceContext.class), mock(UriInfoBuilder.class)).getEntity();
+
+        assertEquals(Set.of(HttpMethod.OPTIONS), response.getAllowedMethods());
+    }
+
+    @Test
+    void should_answer_options_with_allow_header_resolved_from_most_specific_template() {
+        RuntimeDelegate delegate = mock(RuntimeDelegate.class);
+        RuntimeDelegate.setInstance(delegate);
+        when(delegate.createResponseBuilder()).thenAnswer(invocation -> new StubResponseBuilder());
+        ResourceMethods resourceMethods = new ResourceMethods(Topics.class.getMethods());
+
+        Response first = (Response) resourceMethods.findResourceMethods("/5678", "OPTIONS").get()
+                .call(mock(ResourceContext.class), mock(UriInfoBuilder.class)).getEntity();
+        Response second = (Response) resourceMethods.findResourceMethods("/9012", "OPTIONS").get()
+                .call(mock(ResourceContext.class), mock(UriInfoBuilder.class)).getEntity();
+
+        assertEquals("GET,HEAD,OPTIONS", first.getHeaders().getFirst(HttpHeaders.ALLOW));
+        assertSame(first.getHeaders().getFirst(HttpHeaders.ALLOW), second.getHeaders().getFirst(HttpHeaders.ALLOW));
+    }
+
+    @Path("/topics")
+    static class Topics {
+        @GET
+        @Path("/{id}")
+        public String get() {
+            return "topic";
+        }
+
+        @PUT
+        @Path("/1234")
+        public void put() {
+        }
+    }
+
     @Path("/messages")
     static class Messages {
 
@@ -19,16 +19,24 @@ import java.lang.annotation.Retention;
 import java.lang.annotation.RetentionPolicy;
 import java.lang.reflect.Method;
 import java.lang.reflect.Type;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
 import java.net.http.HttpResponse;
 import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.function.Consumer;
 import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
 
 import static org.junit.jupiter.api.Assertions.assertArrayEquals;
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.ArgumentMatchers.*;
-import static org.mockito.Mockito.mock;
-import static org.mockito.Mockito.when;
+import static org.mockito.Mockito.*;
 
 public class ResourceServletTest extends ServletTest {
     private Runtime runtime;
@@ -40,6 +48,10 @@ public class ResourceServletTest extends ServletTest {
 
     @Override
     protected Servlet getServlet() {
+        return resourceServlet();
+    }
+
+    protected ResourceServlet resourceServlet() {
         runtime = mock(Runtime.class);
         resourceRouter = mock(ResourceRouter.class);
         resourceContext = mock(ResourceContext.class);
@@ -55,6 +67,7 @@ public class ResourceServletTest extends ServletTest {
         response = response();
         RuntimeDelegate runtimeDelegate = mock(RuntimeDelegate.class);
         RuntimeDelegate.setInstance(runtimeDelegate);
+        when(runtimeDelegate.createResponseBuilder()).thenAnswer(invocation -> new StubResponseBuilder());
         when(runtimeDelegate.createHeaderDelegate(NewCookie.class)).thenReturn(new RuntimeDelegate.HeaderDelegate<>() {
             @Override
             public NewCookie fromString(String value) {
@@ -88,6 +101,13 @@ public class ResourceServletTest extends ServletTest {
 
         }
 
+        @Test
+        void should_use_encoded_header_values_without_header_delegate() {
+            response.headers(HttpHeaders.CACHE_CONTROL, OutBoundResponse.encoded("no-cache"), OutBoundResponse.encoded("no-store".getBytes())).returnFrom(resourceRouter);
+            HttpResponse httpResponse = get("/test");
+            assertArrayEquals(new String[]{"no-cache", "no-store"}, httpResponse.headers().allValues(HttpHeaders.CACHE_CONTROL).toArray(String[]::new));
+        }
+
         @Test
         void should_writer_entity_to_http_response_using_message_body_writer() {
 
@@ -97,6 +117,70 @@ public class ResourceServletTest extends ServletTest {
         }
 
 
+        @Test
+        void should_write_entity_larger_than_response_buffer_chunk() {
+            String entity = "entity".repeat(5000);
+            response.entity(new GenericEntity<>(entity, String.class), new Annotation[0]).returnFrom(resourceRouter);
+            HttpResponse httpResponse = get("/test");
+            assertEquals(entity, httpResponse.body());
+        }
+
+        @Test
+        void should_write_each_element_of_stream_entity_with_message_body_writer() {
+            AtomicBoolean closed = new AtomicBoolean();
+            response.entity(new GenericEntity<>(Stream.of("a", "b", "c").onClose(() -> closed.set(true)), new GenericType<Stream<String>>() {
+            }.getType()), new Annotation[0]).returnFrom(resourceRouter);
+            HttpResponse httpResponse = get("/test");
+            assertEquals("abc", httpResponse.body());
+            assertTrue(closed.get());
+        }
+
+        @Test
+        void should_write_each_element_of_iterator_entity_with_message_body_writer() {
+            response.entity(new GenericEntity<>(List.of("a", "b", "c").iterator(), new GenericType<Iterator<String>>() {
+            }.getType()), new Annotation[0]).returnFrom(resourceRouter);
+            HttpResponse httpResponse = get("/test");
+            assertEquals("abc", httpResponse.body());
+        }
+
+        @Test
+        void should_write_large_stream_entity_with_chunked_transfer_encoding() {
+            response.entity(new GenericEntity<>(IntStream.range(0, 10000).mapToObj(i -> "row "), new GenericType<Stream<String>>() {
+            }.getType()), new Annotation[0]).returnFrom(resourceRouter);
+            HttpResponse httpResponse = get("/test");
+            assertEquals("row ".repeat(10000), httpResponse.body());
+            assertEquals(Optional.of("chunked"), httpResponse.headers().firstValue("Transfer-Encoding"));
+        }
+
+        @Test
+        void should_write_streaming_output_entity_to_http_response() {
+            StreamingOutput output = stream -> stream.write("streaming".getBytes());
+            response.entity(new GenericEntity<>(output, StreamingOutput.class), new Annotation[0]).returnFrom(resourceRouter);
+            HttpResponse httpResponse = get("/test");
+            assertEquals("streaming", httpResponse.body());
+        }
+
+        @Test
+        void should_keep_connection_open_and_write_published_events() throws Exception {
+            SseBroadcaster broadcaster = new SseBroadcaster(10, SseBroadcaster.Backpressure.DROP_SUBSCRIBER);
+            response.entity(new GenericEntity<>(broadcaster, SseBroadcaster.class), new Annotation[0]).returnFrom(resourceRouter);
+
+            CompletableFuture<HttpResponse<String>> events = HttpClient.newHttpClient()
+                    .sendAsync(HttpRequest.newBuilder(path("/test")).GET().build(), HttpResponse.BodyHandlers.ofString());
+            long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+            while (broadcaster.size() == 0) {
+                assertTrue(System.nanoTime() < deadline, "no subscriber within 10 seconds");
+                Thread.sleep(10);
+            }
+            broadcaster.broadcast(new ServerSentEvent("1", null, "first"));
+            broadcaster.broadcast(new ServerSentEvent("second"));
+            broadcaster.close();
+
+            HttpResponse<String> httpResponse = events.get(10, TimeUnit.SECONDS);
+            assertEquals("id: 1\ndata: first\n\ndata: second\n\n", httpResponse.body());
+            assertEquals(Optional.of("text/event-stream;charset=utf-8"), httpResponse.headers().firstValue("Content-Type").map(String::toLowerCase));
+        }
+
         @Test
         void should_not_call_message_body_writer_if_entity_is_null() {
 
@@ -107,6 +191,102 @@ public class ResourceServletTest extends ServletTest {
         }
     }
 
+    @Nested
+    class RespondForCompletionStage {
+        private CompletableFuture<Object> stage;
+
+        @BeforeEach
+        void setUp() {
+            stage = new CompletableFuture<>();
+            response.entity(new GenericEntity<>(stage, new GenericType<CompletionStage<String>>() {
+            }.getType()), new Annotation[0]).returnFrom(resourceRouter);
+            when(providers.getMessageBodyWriter(eq(String.class), eq(String.class), any(), any())).thenReturn(new MessageBodyWriter<>() {
+                @Override
+                public boolean isWriteable(Class<?> type, Type genericType, Annotation[] annotations, MediaType mediaType) {
+                    return true;
+                }
+
+                @Override
+                public void writeTo(String o, Class<?> type, Type genericType, Annotation[] annotations, MediaType mediaType, MultivaluedMap<String, Object> httpHeaders, OutputStream entityStream) throws IOException, WebApplicationException {
+                    entityStream.write(o.getBytes());
+                }
+            });
+        }
+
+        @Test
+        void should_write_entity_when_completion_stage_completed() {
+            completeLater(() -> stage.complete("completed"));
+
+            HttpResponse httpResponse = get("/test");
+
+            assertEquals(Response.Status.OK.getStatusCode(), httpResponse.statusCode());
+            assertEquals("completed", httpResponse.body());
+        }
+
+        @Test
+        void should_respond_no_content_if_completion_stage_completed_with_null() {
+            completeLater(() -> stage.complete(null));
+
+            assertEquals(Response.Status.NO_CONTENT.getStatusCode(), get("/test").statusCode());
+        }
+
+        @Test
+        void should_use_response_completing_completion_stage() {
+            completeLater(() -> stage.complete(response().status(Response.Status.NOT_MODIFIED).build()));
+
+            assertEquals(Response.Status.NOT_MODIFIED.getStatusCode(), get("/test").statusCode());
+        }
+
+        @Test
+        void should_use_response_from_web_application_exception_completing_completion_stage() {
+            completeLater(() -> stage.completeExceptionally(new WebApplicationException(response().status(Response.Status.FORBIDDEN).build())));
+
+            assertEquals(Response.Status.FORBIDDEN.getStatusCode(), get("/test").statusCode());
+        }
+
+        @Test
+        void should_keep_status_and_headers_of_response_returning_completion_stage() {
+            response().status(Response.Status.ACCEPTED).headers("X-Request-Id", OutBoundResponse.encoded("1"))
+                    .entity(new GenericEntity<>(stage, new GenericType<CompletionStage<String>>() {
+                    }.getType()), new Annotation[0]).returnFrom(resourceRouter);
+            completeLater(() -> stage.complete("completed"));
+
+            HttpResponse<?> httpResponse = get("/test");
+
+            assertEquals(Response.Status.ACCEPTED.getStatusCode(), httpResponse.statusCode());
+            assertEquals(Optional.of("1"), httpResponse.headers().firstValue("X-Request-Id"));
+            assertEquals("completed", httpResponse.body());
+        }
+
+        @Test
+        void should_respond_service_unavailable_if_completion_stage_timed_out() {
+            asyncTimeout = 100;
+
+            assertEquals(Response.Status.SERVICE_UNAVAILABLE.getStatusCode(), get("/test").statusCode());
+        }
+
+        @Test
+        void should_not_write_completion_after_timed_out() {
+            asyncTimeout = 100;
+            get("/test");
+
+            stage.complete("late");
+
+            verify(providers, never()).getMessageBodyWriter(eq(String.class), eq(String.class), any(), any());
+        }
+
+        @Test
+        void should_map_exception_completing_completion_stage() {
+            when(providers.getExceptionMapper(eq(IllegalArgumentException.class))).thenReturn(exception -> response().status(Response.Status.FORBIDDEN).build());
+            completeLater(() -> stage.completeExceptionally(new IllegalArgumentException()));
+
+            assertEquals(Response.Status.FORBIDDEN.getStatusCode(), get("/test").statusCode());
+        }
+
+        private void completeLater(Runnable completion) {
+            CompletableFuture.runAsync(completion, CompletableFuture.delayedExecutor(50, TimeUnit.MILLISECONDS));
+        }
+    }
 
     @TestFactory
     public List<DynamicTest> RespondWhenExtensionMissing() {
@@ -241,7 +421,7 @@ public class ResourceServletTest extends ServletTest {
 
     private Map<String, Consumer<RuntimeException>> getCallers() {
         Map<String, Consumer<RuntimeException>> callers = new HashMap<>();
-        for (final Method method : Arrays.stream(this.getClass().getDeclaredMethods()).filter(m -> m.isAnnotationPresent(ExceptionThrownFrom.class)).collect(Collectors.toList())) {
+        for (final Method method : Arrays.stream(ResourceServletTest.class.getDeclaredMethods()).filter(m -> m.isAnnotationPresent(ExceptionThrownFrom.class)).collect(Collectors.toList())) {
             String name = method.getName();
             String testName = name.substring(0, 1).toUpperCase() + name.substring(1).replace("_", ".");
             callers.put(testName, (exception) -> {
@@ -0,0 +1,45 @@
+package com.rest;
+
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.Arrays;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ResponseBufferTest {
+
+    @ParameterizedTest
+    @ValueSource(ints = {0, 1, 8191, 8192, 8193, 20000})
+    void should_write_buffered_bytes_in_chunks(int size) throws IOException {
+        byte[] bytes = new byte[size];
+        Arrays.fill(bytes, (byte) 'a');
+        ResponseBuffer buffer = new ResponseBuffer();
+        buffer.write('b');
+        buffer.write(bytes);
+
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        int chunks = 0;
+        while (buffer.writeNext(output)) chunks++;
+
+        assertEquals("b" + "a".repeat(size), output.toString());
+        assertEquals((size + 1 + 8191) / 8192, chunks);
+    }
+
+    @ParameterizedTest
+    @ValueSource(ints = {10, 10000})
+    void should_start_empty_when_reusing_released_chunks(int size) throws IOException {
+        ResponseBuffer used = new ResponseBuffer();
+        used.write(new byte[size]);
+        used.release();
+
+        ResponseBuffer buffer = new ResponseBuffer();
+        buffer.write("entity".getBytes());
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        while (buffer.writeNext(output)) ;
+
+        assertEquals("entity", output.toString());
+    }
+}
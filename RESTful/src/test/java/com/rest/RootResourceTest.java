@@ -10,11 +10,12 @@ import org.junit.jupiter.params.ParameterizedTest;
 import org.junit.jupiter.params.provider.CsvSource;
 
 import java.util.List;
+import java.util.function.Supplier;
 
 import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.eq;
-import static org.mockito.Mockito.mock;
-import static org.mockito.Mockito.when;
+import static org.mockito.Mockito.*;
 
 public class RootResourceTest {
 
@@ -89,6 +90,97 @@ public class RootResourceTest {
         assertEquals(List.of("1"), uriInfo.getPathParameters().get("id"));
     }
 
+    @Test
+    void should_share_resource_metadata_between_handlers_of_same_class() {
+        ResourceHandler.Metadata metadata = ResourceHandler.metadata(Message.class);
+
+        new ResourceHandler(new Message(), new PathTemplate("/1"));
+        new ResourceHandler(new Message(), new PathTemplate("/2"));
+
+        assertSame(metadata, ResourceHandler.metadata(Message.class));
+        assertNotSame(metadata, ResourceHandler.metadata(MessageBody.class));
+    }
+
+    @Test
+    void should_prepare_sub_resources_reachable_through_concrete_locator_return_types() {
+        assertEquals(List.of(Messages.class, Message.class, MessageBody.class), List.copyOf(new ResourceHandler(Messages.class).prepare()));
+    }
+
+    @Test
+    void should_not_prepare_sub_resources_of_locators_returning_object_or_interface() {
+        assertEquals(List.of(Folders.class, Folder.class), List.copyOf(new ResourceHandler(Folders.class).prepare()));
+    }
+
+    @Test
+    void should_flatten_sub_resource_chains_with_concrete_return_types() {
+        ResourceHandler handler = new ResourceHandler(Messages.class);
+        handler.prepare();
+
+        assertEquals(List.of("/{id:[0-9]+}/content", "/{id:[0-9]+}/body"), handler.getSubResourceRoutes().get().getTemplates());
+    }
+
+    @Test
+    void should_not_flatten_sub_resources_of_locators_returning_object_interface_or_cycle() {
+        ResourceHandler handler = new ResourceHandler(Folders.class);
+        handler.prepare();
+
+        assertTrue(handler.getSubResourceRoutes().isEmpty());
+    }
+
+    @ParameterizedTest(name = "{3}")
+    @CsvSource(textBlock = """
+            GET,       /messages/1/content,     Message.content,            Map to sub-resource method
+            GET,       /messages/1/body,        MessageBody.get,            Map to sub-sub-resource method
+            HEAD,      /messages/1/body,        MessageBody.get,            Map head to get of sub-sub-resource
+            GET,       /messages/1/handler,     none,                       Not matched sub-resource method
+            GET,       /messages/1/body/other,  none,                       Not matched sub-sub-resource method
+            """)
+    public void should_match_same_resource_method_through_flattened_routes(String httpMethod, String path, String resourceMethod, String context) {
+        ResourceHandler resource = new ResourceHandler(Messages.class);
+        resource.prepare();
+        UriTemplate.MatchResult result = resource.getUriTemplate().match(path).get();
+
+        assertEquals(resourceMethod, resource.match(result, httpMethod, new String[]{MediaType.TEXT_PLAIN}, resourceContext, new StubUriInfoBuilder())
+                .map(Object::toString).orElse("none"));
+    }
+
+    @Test
+    void should_add_path_parameters_and_sub_resources_matched_through_flattened_routes() {
+        StubUriInfoBuilder uriInfoBuilder = new StubUriInfoBuilder();
+        ResourceHandler resource = new ResourceHandler(Messages.class);
+        resource.prepare();
+        UriTemplate.MatchResult result = resource.getUriTemplate().match("/messages/1/body").get();
+
+        resource.match(result, "GET", new String[]{MediaType.TEXT_PLAIN}, resourceContext, uriInfoBuilder);
+
+        assertTrue(uriInfoBuilder.getLastMatchedResource() instanceof MessageBody);
+        assertEquals(List.of("1"), uriInfoBuilder.getPathParameters().get("id"));
+    }
+
+    @Test
+    void should_fall_back_to_matching_level_by_level_if_locator_returns_subclass() {
+        when(resourceContext.getResource(eq(Archives.class))).thenReturn(new Archives());
+        ResourceHandler resource = new ResourceHandler(Archives.class);
+        resource.prepare();
+        UriTemplate.MatchResult result = resource.getUriTemplate().match("/archives/1/special").get();
+
+        assertEquals("SpecialArchive.special", resource.match(result, "GET", new String[]{MediaType.TEXT_PLAIN}, resourceContext, new StubUriInfoBuilder()).get().toString());
+    }
+
+    @ParameterizedTest(name = "{2}")
+    @CsvSource(textBlock = """
+            GET,        /messages/hello,        no method matched
+            OPTIONS,    /messages/special,      implicit options
+            """)
+    public void should_not_create_root_resource_if_not_needed_by_matched_method(String httpMethod, String path, String context) {
+        ResourceRouter.Resource resource = new ResourceHandler(Messages.class);
+        UriTemplate.MatchResult result = resource.getUriTemplate().match(path).get();
+
+        resource.match(result, httpMethod, new String[]{MediaType.TEXT_PLAIN}, resourceContext, new StubUriInfoBuilder());
+
+        verify(resourceContext, never()).getResource(any());
+    }
+
     @Test
     void should_throw_illegal_argument_exception_if_root_resource_not_have_path_annotation() {
         assertThrows(IllegalArgumentException.class, () -> new ResourceHandler(Message.class));
@@ -145,6 +237,60 @@ public class RootResourceTest {
         }
     }
 
+    @Path("/folders")
+    static class Folders {
+        @Path("/{name}")
+        public Folder folder() {
+            return new Folder();
+        }
+
+        @Path("/any")
+        public Object any() {
+            return new MessageBody();
+        }
+
+        @Path("/body")
+        public Supplier<String> body() {
+            return () -> "body";
+        }
+    }
+
+    static class Folder {
+        @GET
+        @Produces(MediaType.TEXT_PLAIN)
+        public String get() {
+            return "folder";
+        }
+
+        @Path("/{name}")
+        public Folder child() {
+            return new Folder();
+        }
+    }
+
+    @Path("/archives")
+    static class Archives {
+        @Path("/{id}")
+        public Archive archive() {
+            return new SpecialArchive();
+        }
+    }
+
+    static class Archive {
+        @GET
+        public String get() {
+            return "archive";
+        }
+    }
+
+    static class SpecialArchive extends Archive {
+        @GET
+        @Path("/special")
+        public String special() {
+            return "special";
+        }
+    }
+
     static class MessageBody {
 
         @GET
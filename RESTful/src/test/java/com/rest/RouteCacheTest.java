@@ -0,0 +1,166 @@
+package com.rest;
+
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.ws.rs.GET;
+import jakarta.ws.rs.Path;
+import jakarta.ws.rs.PathParam;
+import jakarta.ws.rs.container.ResourceContext;
+import jakarta.ws.rs.core.GenericEntity;
+import jakarta.ws.rs.core.HttpHeaders;
+import jakarta.ws.rs.core.MediaType;
+import jakarta.ws.rs.ext.RuntimeDelegate;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Vector;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+public class RouteCacheTest {
+    private Runtime runtime;
+    private ResourceContext resourceContext;
+    private Users users;
+
+    @BeforeEach
+    void setUp() {
+        runtime = mock(Runtime.class);
+        resourceContext = mock(ResourceContext.class);
+        users = new Users();
+        when(resourceContext.getResource(eq(Users.class))).thenAnswer(invocation -> users);
+        when(runtime.createUriInfoBuilder(any())).thenAnswer(invocation -> new StubUriInfoBuilder());
+
+        RuntimeDelegate delegate = mock(RuntimeDelegate.class);
+        RuntimeDelegate.setInstance(delegate);
+        when(delegate.createResponseBuilder()).thenAnswer(invocation -> new StubResponseBuilder());
+    }
+
+    @Test
+    void should_replay_cached_route_for_same_request() {
+        RouteCache cache = new RouteCache(10);
+        DefaultResourceRouter router = new DefaultResourceRouter(runtime, List.of(new ResourceHandler(Users.class)), cache);
+
+        assertEquals("user john", entity(router.dispatch(request("GET", "/users/john"), resourceContext)));
+        assertEquals("user john", entity(router.dispatch(request("GET", "/users/john"), resourceContext)));
+
+        assertEquals(new RouteCache.Statistics(1, 1, 0), cache.getStatistics());
+    }
+
+    @Test
+    void should_still_call_sub_resource_locator_when_route_replayed() {
+        RouteCache cache = new RouteCache(10);
+        DefaultResourceRouter router = new DefaultResourceRouter(runtime, List.of(new ResourceHandler(Users.class)), cache);
+
+        router.dispatch(request("GET", "/users/john"), resourceContext);
+        router.dispatch(request("GET", "/users/john"), resourceContext);
+
+        assertEquals(2, users.located);
+    }
+
+    @Test
+    void should_match_again_if_sub_resource_locator_returns_other_class() {
+        RouteCache cache = new RouteCache(10);
+        DefaultResourceRouter router = new DefaultResourceRouter(runtime, List.of(new ResourceHandler(Users.class)), cache);
+
+        router.dispatch(request("GET", "/users/john"), resourceContext);
+        users.admin = true;
+
+        assertEquals("admin john", entity(router.dispatch(request("GET", "/users/john"), resourceContext)));
+    }
+
+    @Test
+    void should_key_route_by_http_method_path_and_accept() {
+        RouteCache cache = new RouteCache(10);
+        DefaultResourceRouter router = new DefaultResourceRouter(runtime, List.of(new ResourceHandler(Users.class)), cache);
+
+        router.dispatch(request("GET", "/users/john"), resourceContext);
+        router.dispatch(request("GET", "/users/jane"), resourceContext);
+        router.dispatch(request("HEAD", "/users/john"), resourceContext);
+        router.dispatch(request("GET", "/users/john", MediaType.TEXT_PLAIN), resourceContext);
+
+        assertEquals(4, cache.size());
+        assertEquals(new RouteCache.Statistics(0, 4, 0), cache.getStatistics());
+    }
+
+    @Test
+    void should_not_cache_route_if_no_resource_method_found() {
+        RouteCache cache = new RouteCache(10);
+        DefaultResourceRouter router = new DefaultResourceRouter(runtime, List.of(new ResourceHandler(Users.class)), cache);
+
+        assertEquals(404, router.dispatch(request("GET", "/users/john/orders"), resourceContext).getStatus());
+
+        assertEquals(0, cache.size());
+    }
+
+    @Test
+    void should_evict_eldest_route_if_cache_full() {
+        RouteCache cache = new RouteCache(1);
+        DefaultResourceRouter router = new DefaultResourceRouter(runtime, List.of(new ResourceHandler(Users.class)), cache);
+
+        router.dispatch(request("GET", "/users/john"), resourceContext);
+        router.dispatch(request("GET", "/users/jane"), resourceContext);
+        router.dispatch(request("GET", "/users/jane"), resourceContext);
+
+        assertEquals(1, cache.size());
+        assertEquals(new RouteCache.Statistics(1, 2, 1), cache.getStatistics());
+    }
+
+    @Test
+    void should_throw_illegal_argument_exception_if_maximum_size_not_positive() {
+        assertThrows(IllegalArgumentException.class, () -> new RouteCache(0));
+    }
+
+    private Object entity(OutBoundResponse response) {
+        return ((GenericEntity<?>) response.getEntity()).getEntity();
+    }
+
+    private HttpServletRequest request(String method, String path, String... accept) {
+        HttpServletRequest request = mock(HttpServletRequest.class);
+        when(request.getServletPath()).thenReturn(path);
+        when(request.getMethod()).thenReturn(method);
+        when(request.getHeaders(eq(HttpHeaders.ACCEPT))).thenReturn(new Vector<>(List.of(accept.length == 0 ? new String[]{MediaType.WILDCARD} : accept)).elements());
+        return request;
+    }
+
+    @Path("/users")
+    public static class Users {
+        private int located = 0;
+        private boolean admin = false;
+
+        @Path("/{name}")
+        public Object user(@PathParam("name") String name) {
+            located++;
+            return admin ? new Admin(name) : new User(name);
+        }
+    }
+
+    public static class User {
+        private final String name;
+
+        public User(String name) {
+            this.name = name;
+        }
+
+        @GET
+        public String get() {
+            return "user " + name;
+        }
+    }
+
+    public static class Admin {
+        private final String name;
+
+        public Admin(String name) {
+            this.name = name;
+        }
+
+        @GET
+        public String get() {
+            return "admin " + name;
+        }
+    }
+}
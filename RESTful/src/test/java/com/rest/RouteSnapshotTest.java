@@ -0,0 +1,265 @@
+package com.rest;
+
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.ws.rs.GET;
+import jakarta.ws.rs.Path;
+import jakarta.ws.rs.PathParam;
+import jakarta.ws.rs.container.ResourceContext;
+import jakarta.ws.rs.core.GenericEntity;
+import jakarta.ws.rs.core.HttpHeaders;
+import jakarta.ws.rs.ext.RuntimeDelegate;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.*;
+import java.nio.file.Files;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.Vector;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+public class RouteSnapshotTest {
+    private Runtime runtime;
+    private ResourceContext resourceContext;
+
+    @TempDir
+    java.nio.file.Path directory;
+
+    @BeforeEach
+    void setUp() {
+        runtime = mock(Runtime.class);
+        resourceContext = mock(ResourceContext.class);
+        when(resourceContext.getResource(eq(Users.class))).thenReturn(new Users());
+        when(resourceContext.getResource(eq(Partial.class))).thenReturn(new Partial());
+        when(resourceContext.getResource(eq(Precedence.class))).thenReturn(new Precedence());
+        when(runtime.createUriInfoBuilder(any())).thenAnswer(invocation -> new StubUriInfoBuilder());
+
+        RuntimeDelegate delegate = mock(RuntimeDelegate.class);
+        RuntimeDelegate.setInstance(delegate);
+        when(delegate.createResponseBuilder()).thenAnswer(invocation -> new StubResponseBuilder());
+    }
+
+    @Test
+    void should_read_written_snapshot() throws IOException {
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        RouteSnapshot.of(List.of(Users.class)).write(output);
+
+        RouteSnapshot snapshot = RouteSnapshot.read(new ByteArrayInputStream(output.toByteArray()), getClass().getClassLoader()).get();
+
+        assertEquals(List.of(Users.class), snapshot.getRootResources());
+    }
+
+    @Test
+    void should_route_with_router_loaded_from_snapshot() throws IOException {
+        java.nio.file.Path file = directory.resolve("routes.bin");
+        try (OutputStream output = Files.newOutputStream(file)) {
+            RouteSnapshot.of(List.of(Users.class)).write(output);
+        }
+
+        DefaultResourceRouter router = DefaultResourceRouter.load(runtime, List.of(Users.class), file);
+
+        assertEquals("users", entity(router.dispatch(request("/users"), resourceContext)));
+        assertEquals("user john", entity(router.dispatch(request("/users/john"), resourceContext)));
+        assertEquals("orders of john", entity(router.dispatch(request("/users/john/orders"), resourceContext)));
+    }
+
+    @Test
+    void should_fall_back_to_scanning_if_snapshot_not_exist() {
+        DefaultResourceRouter router = DefaultResourceRouter.load(runtime, List.of(Users.class), directory.resolve("missing.bin"));
+
+        assertEquals("user john", entity(router.dispatch(request("/users/john"), resourceContext)));
+    }
+
+    @Test
+    void should_not_read_snapshot_if_fingerprint_not_matched() throws IOException {
+        byte[] snapshot = snapshot(Partial.class, RouteSnapshot.fingerprint(List.of(Partial.class)) + 1, "", "get");
+
+        assertTrue(RouteSnapshot.read(new ByteArrayInputStream(snapshot), getClass().getClassLoader()).isEmpty());
+    }
+
+    @Test
+    void should_fingerprint_supertypes_and_interfaces_of_resource_classes() {
+        assertEquals(Set.of(Admins.class, Users.class, Named.class), RouteSnapshot.hierarchy(List.of(Admins.class)));
+    }
+
+    @Test
+    void should_not_read_snapshot_of_other_format() {
+        assertTrue(RouteSnapshot.read(new ByteArrayInputStream("routes".getBytes()), getClass().getClassLoader()).isEmpty());
+    }
+
+    @Test
+    void should_route_with_route_data_recorded_in_snapshot() throws IOException {
+        java.nio.file.Path file = directory.resolve("partial.bin");
+        Files.write(file, snapshot(Partial.class, RouteSnapshot.fingerprint(List.of(Partial.class)), "/renamed", "other"));
+
+        DefaultResourceRouter router = DefaultResourceRouter.load(runtime, List.of(Partial.class), file);
+
+        assertEquals("other", entity(router.dispatch(request("/partial/renamed"), resourceContext)));
+        assertEquals(404, router.dispatch(request("/partial/other"), resourceContext).getStatus());
+    }
+
+    @Test
+    void should_restore_template_analysis_recorded_in_snapshot() throws IOException {
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        RouteSnapshot.of(List.of(Users.class)).write(output);
+
+        RouteSnapshot snapshot = RouteSnapshot.read(new ByteArrayInputStream(output.toByteArray()), getClass().getClassLoader()).get();
+        ResourceHandler.Metadata metadata = snapshot.metadata().apply(Users.class);
+
+        assertEquals(new PathTemplate("/{name}").getAnalysis(), metadata.subResourceLocators().getLocators().handlers().get(0).getUriTemplate().getAnalysis());
+    }
+
+    @Test
+    void should_route_in_precedence_order_recorded_in_snapshot() throws IOException {
+        java.nio.file.Path file = directory.resolve("precedence.bin");
+        Map<String, String> routes = new LinkedHashMap<>();
+        routes.put("/{id}", "id");
+        routes.put("/special", "special");
+        Files.write(file, snapshot(Precedence.class, RouteSnapshot.fingerprint(List.of(Precedence.class)), routes, List.of(0, 1)));
+
+        DefaultResourceRouter router = DefaultResourceRouter.load(runtime, List.of(Precedence.class), file);
+
+        assertEquals("id", entity(router.dispatch(request("/precedence/special"), resourceContext)));
+    }
+
+    @Test
+    void should_not_read_snapshot_if_recorded_precedence_order_invalid() throws IOException {
+        Map<String, String> routes = new LinkedHashMap<>();
+        routes.put("/{id}", "id");
+        routes.put("/special", "special");
+        byte[] snapshot = snapshot(Precedence.class, RouteSnapshot.fingerprint(List.of(Precedence.class)), routes, List.of(1, 1));
+
+        assertTrue(RouteSnapshot.read(new ByteArrayInputStream(snapshot), getClass().getClassLoader()).isEmpty());
+    }
+
+    @Test
+    void should_not_change_routes_of_other_routers_after_snapshot_loaded() throws IOException {
+        java.nio.file.Path file = directory.resolve("partial.bin");
+        Files.write(file, snapshot(Partial.class, RouteSnapshot.fingerprint(List.of(Partial.class)), "/renamed", "other"));
+        DefaultResourceRouter.load(runtime, List.of(Partial.class), file);
+
+        DefaultResourceRouter router = new DefaultResourceRouter(runtime, List.of(new ResourceHandler(Partial.class)));
+
+        assertEquals("other", entity(router.dispatch(request("/partial/other"), resourceContext)));
+        assertEquals(404, router.dispatch(request("/partial/renamed"), resourceContext).getStatus());
+    }
+
+    private static byte[] snapshot(Class<?> type, long fingerprint, String path, String method) throws IOException {
+        return snapshot(type, fingerprint, Map.of(path, method), List.of());
+    }
+
+    private static byte[] snapshot(Class<?> type, long fingerprint, Map<String, String> routes, List<Integer> order) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        DataOutputStream output = new DataOutputStream(bytes);
+        output.writeInt(0x52534e50);
+        output.writeInt(3);
+        output.writeLong(fingerprint);
+        output.writeInt(1);
+        output.writeUTF(type.getName());
+        output.writeInt(1);
+        output.writeUTF(type.getName());
+        output.writeInt(routes.size());
+        for (Map.Entry<String, String> route : routes.entrySet()) {
+            output.writeUTF(route.getKey());
+            output.writeBoolean(true);
+            output.writeUTF("GET");
+            output.writeUTF(route.getValue());
+            output.writeByte(0);
+        }
+        output.writeInt(0);
+        output.writeInt(order.isEmpty() ? 0 : 1);
+        if (order.isEmpty()) return bytes.toByteArray();
+        output.writeUTF("methods GET");
+        output.writeBoolean(true);
+        output.writeInt(order.size());
+        for (int position : order) output.writeInt(position);
+        return bytes.toByteArray();
+    }
+
+    private HttpServletRequest request(String path) {
+        HttpServletRequest request = mock(HttpServletRequest.class);
+        when(request.getServletPath()).thenReturn(path);
+        when(request.getMethod()).thenReturn("GET");
+        when(request.getHeaders(eq(HttpHeaders.ACCEPT))).thenReturn(new Vector<String>().elements());
+        return request;
+    }
+
+    private static Object entity(OutBoundResponse response) {
+        return ((GenericEntity<?>) response.getEntity()).getEntity();
+    }
+
+    @Path("/users")
+    static class Users {
+        @GET
+        public String get() {
+            return "users";
+        }
+
+        @Path("/{name}")
+        public User user(@PathParam("name") String name) {
+            return new User(name);
+        }
+    }
+
+    static class User {
+        private final String name;
+
+        User(String name) {
+            this.name = name;
+        }
+
+        @GET
+        public String get() {
+            return "user " + name;
+        }
+
+        @GET
+        @Path("/orders")
+        public String orders() {
+            return "orders of " + name;
+        }
+    }
+
+    interface Named {
+    }
+
+    static class Admins extends Users implements Named {
+    }
+
+    @Path("/precedence")
+    static class Precedence {
+        @GET
+        @Path("/{id}")
+        public String id() {
+            return "id";
+        }
+
+        @GET
+        @Path("/special")
+        public String special() {
+            return "special";
+        }
+    }
+
+    @Path("/partial")
+    static class Partial {
+        @GET
+        public String get() {
+            return "partial";
+        }
+
+        @GET
+        @Path("/other")
+        public String other() {
+            return "other";
+        }
+    }
+}
@@ -0,0 +1,65 @@
+package com.rest;
+
+import jakarta.ws.rs.*;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class RouteTableTest {
+
+    @Test
+    void should_load_route_table_generated_for_resource_class() {
+        assertTrue(RouteTable.generated(Orders.class).isPresent());
+    }
+
+    @Test
+    void should_resolve_same_routes_from_generated_table_as_from_scanning() {
+        assertEquals(Set.copyOf(RouteTable.scan(Orders.class.getMethods())), Set.copyOf(RouteTable.generated(Orders.class).get()));
+    }
+
+    @Test
+    void should_record_binding_plan_of_parameters_in_route() {
+        GeneratedRoutes.Route route = RouteTable.generated(Orders.class).get().stream()
+                .map(RouteTable.Entry::route).filter(r -> r.name().equals("search")).findFirst().get();
+
+        assertEquals(List.of(new GeneratedRoutes.Parameter("id", null, null), new GeneratedRoutes.Parameter(null, "q", "all")), route.parameters());
+    }
+
+    @Test
+    void should_fall_back_to_scanning_if_no_route_table_generated() {
+        assertTrue(RouteTable.generated(Object.class).isEmpty());
+        assertEquals(RouteTable.scan(Object.class.getMethods()), RouteTable.of(Object.class));
+    }
+
+    @Test
+    void should_not_use_route_table_if_method_in_table_not_found() {
+        assertThrows(NoSuchMethodException.class, () -> RouteTable.resolve(Orders.class,
+                List.of(new GeneratedRoutes.Route("", "GET", "removed", List.of(), List.of()))));
+    }
+
+    @Path("/orders")
+    public static class Orders {
+        @GET
+        public String get() {
+            return "orders";
+        }
+
+        @GET
+        @Path("/{id}")
+        public String search(@PathParam("id") int id, @QueryParam("q") @DefaultValue("all") String q) {
+            return "order";
+        }
+
+        @Path("/{id}/items")
+        public Orders items() {
+            return this;
+        }
+
+        public String notResourceMethod() {
+            return "";
+        }
+    }
+}
@@ -0,0 +1,96 @@
+package com.rest;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class SegmentTrieTest {
+
+    static final List<Handler> HANDLERS = List.of("/users", "/users/{id}", "/users/{id:[0-9]+}", "/users/1234",
+                    "/{resource}/1234/{action}", "/users/{id}/order", "/users/{name}/order", "/users/{id}/orders/{orderId}",
+                    "", "/missing.messages", "/files/{path:.+}", "/users/me", "users", "/message/", "/topic/{id:\\d+|latest}")
+            .stream().map(Handler::new).toList();
+
+    @ParameterizedTest
+    @ValueSource(strings = {"/users", "/users/1", "/users/john", "/users/1234", "/users/1234/order", "/users/1/orders/2",
+            "/users/1/orders/2/items", "/orders/1234/cancel", "/users/me", "/users/me/order", "users/1", "/message/",
+            "/message/1", "/message", "/missing.messages", "/missingXmessages/1", "/files/a/b/c", "/topic/latest",
+            "/topic/12", "/topic/oldest", "/", "", "unknown", "//users"})
+    void should_choose_the_same_handler_as_sorting_all_matched(String path) {
+        SegmentTrie<Handler> trie = new SegmentTrie<>(HANDLERS);
+
+        Optional<Handler> expected = UriHandlers.match(path, HANDLERS, r -> true);
+        Optional<Handler> actual = trie.mapMatched(path, (result, handler) -> Optional.of(handler));
+
+        assertEquals(expected, actual);
+    }
+
+    @Test
+    void should_pass_match_result_of_chosen_handler_to_mapper() {
+        SegmentTrie<Handler> trie = new SegmentTrie<>(HANDLERS);
+
+        UriTemplate.MatchResult result = trie.mapMatched("/users/1/orders/2/items", (r, handler) -> r).get();
+
+        assertEquals("/users/1/orders/2", result.getMatched());
+        assertEquals("/items", result.getRemaining());
+        assertEquals("1", result.getMatchedPathParameters().get("id"));
+        assertEquals("2", result.getMatchedPathParameters().get("orderId"));
+    }
+
+    @Test
+    void should_choose_first_handler_if_templates_are_equally_specific() {
+        Handler first = new Handler("/users/{id}");
+        Handler second = new Handler("/users/{name}");
+
+        SegmentTrie<Handler> trie = new SegmentTrie<>(List.of(first, second));
+
+        assertSame(first, trie.mapMatched("/users/1", (r, handler) -> Optional.of(handler)).get());
+    }
+
+    @Test
+    void should_return_empty_if_no_template_matched() {
+        SegmentTrie<Handler> trie = new SegmentTrie<>(List.of(new Handler("/users"), new Handler("/orders/{id}")));
+
+        assertTrue(trie.mapMatched("/customers/1", (r, handler) -> Optional.of(handler)).isEmpty());
+    }
+
+    @ParameterizedTest
+    @CsvSource({"/users/1,true", "/users,true", "/orders,true", "/files/a/b,true", "/customers/1,false", "users,false", "/,false", "'',false"})
+    void should_reject_path_if_no_template_has_its_first_segment(String path, boolean mayMatch) {
+        SegmentTrie<Handler> trie = new SegmentTrie<>(List.of(new Handler("/users/{id}"), new Handler("/orders"), new Handler("/files/{path:.+}")));
+
+        assertEquals(mayMatch, trie.mayMatch(path));
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {"/{resource}/1", "", "users", "/{id:[0-9]+}"})
+    void should_not_reject_path_if_template_not_start_with_literal_segment(String template) {
+        SegmentTrie<Handler> trie = new SegmentTrie<>(List.of(new Handler("/users"), new Handler(template)));
+
+        assertTrue(trie.mayMatch("/customers"));
+    }
+
+    @Test
+    void should_not_split_template_variable_pattern_matching_across_segments() {
+        assertTrue(new PathTemplate("/files/{path:.+}").getSegments().isEmpty());
+        assertTrue(new PathTemplate("/missing.messages").getSegments().isEmpty());
+        assertTrue(new PathTemplate("/users/{id:[0-9]+}/orders/{orderId}").getSegments().isPresent());
+    }
+
+    record Handler(UriTemplate template) implements UriHandler {
+        Handler(String template) {
+            this(new PathTemplate(template));
+        }
+
+        @Override
+        public UriTemplate getUriTemplate() {
+            return template;
+        }
+    }
+}
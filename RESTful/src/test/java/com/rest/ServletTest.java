@@ -1,6 +1,10 @@
 package com.rest;
 
-import jakarta.servlet.Servlet;
+import jakarta.servlet.*;
+import jakarta.servlet.http.HttpServlet;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletRequestWrapper;
+import jakarta.servlet.http.HttpServletResponse;
 import org.eclipse.jetty.server.Connector;
 import org.eclipse.jetty.server.Server;
 import org.eclipse.jetty.server.ServerConnector;
@@ -9,6 +13,7 @@ import org.eclipse.jetty.servlet.ServletHolder;
 import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
 
+import java.io.IOException;
 import java.net.URI;
 import java.net.URL;
 import java.net.http.HttpClient;
@@ -18,6 +23,7 @@ import java.net.http.HttpResponse;
 public abstract class ServletTest {
 
     private Server server;
+    protected long asyncTimeout;
 
     @BeforeEach
     void start() throws Exception {
@@ -26,7 +32,9 @@ public abstract class ServletTest {
         server.addConnector(connector);
 
         ServletContextHandler handler = new ServletContextHandler(server, "/");
-        handler.addServlet(new ServletHolder(getServlet()), "/");
+        ServletHolder holder = new ServletHolder(withAsyncTimeout(getServlet()));
+        holder.setAsyncSupported(true);
+        handler.addServlet(holder, "/");
         server.setHandler(handler);
         server.start();
     }
@@ -38,6 +46,28 @@ public abstract class ServletTest {
 
     protected abstract Servlet getServlet();
 
+    private Servlet withAsyncTimeout(Servlet servlet) {
+        return new HttpServlet() {
+            @Override
+            public void init(ServletConfig config) throws ServletException {
+                super.init(config);
+                servlet.init(config);
+            }
+
+            @Override
+            protected void service(HttpServletRequest req, HttpServletResponse resp) throws ServletException, IOException {
+                servlet.service(new HttpServletRequestWrapper(req) {
+                    @Override
+                    public AsyncContext startAsync() {
+                        AsyncContext async = super.startAsync();
+                        if (asyncTimeout > 0) async.setTimeout(asyncTimeout);
+                        return async;
+                    }
+                }, resp);
+            }
+        };
+    }
+
     protected URI path(String path) throws Exception {
         return new URL(new URL("http://localhost:8080/"), path).toURI();
     }
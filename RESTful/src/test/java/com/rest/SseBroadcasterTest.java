@@ -0,0 +1,207 @@
+package com.rest;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Flow;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class SseBroadcasterTest {
+
+    @Test
+    void should_encode_event_once_for_all_subscribers() {
+        SseBroadcaster broadcaster = new SseBroadcaster(10, SseBroadcaster.Backpressure.DROP_SUBSCRIBER);
+        Subscriber first = subscribe(broadcaster, Long.MAX_VALUE);
+        Subscriber second = subscribe(broadcaster, Long.MAX_VALUE);
+
+        ServerSentEvent event = new ServerSentEvent("update");
+        broadcaster.broadcast(event);
+
+        assertSame(event.encoded(), first.events.get(0).encoded());
+        assertSame(event.encoded(), second.events.get(0).encoded());
+    }
+
+    @Test
+    void should_deliver_pending_events_when_subscriber_requests() {
+        SseBroadcaster broadcaster = new SseBroadcaster(10, SseBroadcaster.Backpressure.DROP_SUBSCRIBER);
+        Subscriber subscriber = subscribe(broadcaster, 0);
+
+        broadcaster.broadcast(new ServerSentEvent("1"));
+        broadcaster.broadcast(new ServerSentEvent("2"));
+        assertEquals(List.of(), subscriber.data());
+
+        subscriber.subscription.request(1);
+        assertEquals(List.of("1"), subscriber.data());
+
+        subscriber.subscription.request(5);
+        assertEquals(List.of("1", "2"), subscriber.data());
+    }
+
+    @ParameterizedTest(name = "{0}")
+    @CsvSource(textBlock = """
+            DROP_OLDEST,    '2,3'
+            DROP_LATEST,    '1,2'
+            """)
+    void should_drop_events_for_slow_subscriber_by_backpressure_policy(SseBroadcaster.Backpressure backpressure, String expected) {
+        SseBroadcaster broadcaster = new SseBroadcaster(2, backpressure);
+        Subscriber subscriber = subscribe(broadcaster, 0);
+
+        for (String data : List.of("1", "2", "3")) broadcaster.broadcast(new ServerSentEvent(data));
+        subscriber.subscription.request(10);
+
+        assertEquals(List.of(expected.split(",")), subscriber.data());
+        assertEquals(1, broadcaster.size());
+    }
+
+    @Test
+    void should_drop_slow_subscriber_if_pending_events_exceed_capacity() {
+        SseBroadcaster broadcaster = new SseBroadcaster(2, SseBroadcaster.Backpressure.DROP_SUBSCRIBER);
+        Subscriber slow = subscribe(broadcaster, 0);
+        Subscriber fast = subscribe(broadcaster, Long.MAX_VALUE);
+
+        for (String data : List.of("1", "2", "3")) broadcaster.broadcast(new ServerSentEvent(data));
+
+        assertInstanceOf(IllegalStateException.class, slow.error);
+        assertEquals(List.of("1", "2", "3"), fast.data());
+        assertEquals(1, broadcaster.size());
+    }
+
+    @Test
+    void should_not_deliver_events_after_subscription_cancelled() {
+        SseBroadcaster broadcaster = new SseBroadcaster(10, SseBroadcaster.Backpressure.DROP_SUBSCRIBER);
+        Subscriber subscriber = subscribe(broadcaster, Long.MAX_VALUE);
+
+        subscriber.subscription.cancel();
+        broadcaster.broadcast(new ServerSentEvent("1"));
+
+        assertEquals(List.of(), subscriber.data());
+        assertEquals(0, broadcaster.size());
+    }
+
+    @Test
+    void should_complete_subscribers_when_closed() {
+        SseBroadcaster broadcaster = new SseBroadcaster(10, SseBroadcaster.Backpressure.DROP_SUBSCRIBER);
+        Subscriber subscriber = subscribe(broadcaster, Long.MAX_VALUE);
+
+        broadcaster.close();
+
+        assertTrue(subscriber.completed);
+        assertEquals(0, broadcaster.size());
+    }
+
+    @Test
+    void should_complete_subscriber_after_pending_events_delivered() {
+        SseBroadcaster broadcaster = new SseBroadcaster(10, SseBroadcaster.Backpressure.DROP_SUBSCRIBER);
+        Subscriber subscriber = subscribe(broadcaster, 0);
+
+        broadcaster.broadcast(new ServerSentEvent("1"));
+        broadcaster.close();
+        broadcaster.broadcast(new ServerSentEvent("2"));
+        assertFalse(subscriber.completed);
+
+        subscriber.subscription.request(10);
+
+        assertEquals(List.of("1"), subscriber.data());
+        assertTrue(subscriber.completed);
+        assertEquals(0, broadcaster.size());
+    }
+
+    @Test
+    void should_complete_subscriber_immediately_if_subscribed_after_closed() {
+        SseBroadcaster broadcaster = new SseBroadcaster(10, SseBroadcaster.Backpressure.DROP_SUBSCRIBER);
+        broadcaster.close();
+
+        Subscriber subscriber = subscribe(broadcaster, Long.MAX_VALUE);
+
+        assertNotNull(subscriber.subscription);
+        assertTrue(subscriber.completed);
+        assertEquals(0, broadcaster.size());
+    }
+
+    @Test
+    void should_not_deliver_events_broadcast_after_closed() {
+        SseBroadcaster broadcaster = new SseBroadcaster(10, SseBroadcaster.Backpressure.DROP_SUBSCRIBER);
+        broadcaster.close();
+        Subscriber subscriber = subscribe(broadcaster, 0);
+
+        broadcaster.broadcast(new ServerSentEvent("1"));
+        subscriber.subscription.request(10);
+
+        assertEquals(List.of(), subscriber.data());
+    }
+
+    @Test
+    void should_not_recurse_if_subscriber_requests_from_on_next() {
+        int events = 200_000;
+        SseBroadcaster broadcaster = new SseBroadcaster(events, SseBroadcaster.Backpressure.DROP_SUBSCRIBER);
+        Subscriber subscriber = new Subscriber() {
+            @Override
+            public void onNext(ServerSentEvent item) {
+                super.onNext(item);
+                super.subscription.request(1);
+            }
+        };
+        broadcaster.subscribe(subscriber);
+
+        for (int i = 0; i < events; i++) broadcaster.broadcast(new ServerSentEvent(String.valueOf(i)));
+        subscriber.subscription.request(1);
+
+        assertEquals(events, subscriber.events.size());
+    }
+
+    @ParameterizedTest(name = "{3}")
+    @CsvSource(textBlock = """
+            ,       ,           update,         'data: update\\n\\n',                                      data only
+            1,      message,    update,         'id: 1\\nevent: message\\ndata: update\\n\\n',            id and name
+            ,       ,           'first\\nsecond', 'data: first\\ndata: second\\n\\n',                     multiple lines
+            """)
+    void should_encode_event_in_event_stream_format(String id, String name, String data, String expected, String context) {
+        ServerSentEvent event = new ServerSentEvent(id, name, data.replace("\\n", "\n"));
+
+        assertEquals(expected.replace("\\n", "\n"), new String(event.encoded(), StandardCharsets.UTF_8));
+    }
+
+    private static Subscriber subscribe(SseBroadcaster broadcaster, long demand) {
+        Subscriber subscriber = new Subscriber();
+        broadcaster.subscribe(subscriber);
+        if (demand > 0) subscriber.subscription.request(demand);
+        return subscriber;
+    }
+
+    static class Subscriber implements Flow.Subscriber<ServerSentEvent> {
+        private Flow.Subscription subscription;
+        private final List<ServerSentEvent> events = new ArrayList<>();
+        private Throwable error;
+        private boolean completed;
+
+        @Override
+        public void onSubscribe(Flow.Subscription subscription) {
+            this.subscription = subscription;
+        }
+
+        @Override
+        public void onNext(ServerSentEvent item) {
+            events.add(item);
+        }
+
+        @Override
+        public void onError(Throwable throwable) {
+            error = throwable;
+        }
+
+        @Override
+        public void onComplete() {
+            completed = true;
+        }
+
+        List<String> data() {
+            return events.stream().map(e -> new String(e.encoded(), StandardCharsets.UTF_8))
+                    .map(e -> e.substring("data: ".length(), e.length() - 2)).toList();
+        }
+    }
+}
@@ -13,6 +13,7 @@ class StubResponseBuilder extends Response.ResponseBuilder {
     private Object entity;
     private int status;
     private Set<String> allowed = new HashSet<>();
+    private MultivaluedMap<String, Object> headers = new MultivaluedHashMap<>();
 
     @Override
     public Response build() {
@@ -22,7 +23,7 @@ class StubResponseBuilder extends Response.ResponseBuilder {
         when(response.getAllowedMethods()).thenReturn(allowed);
         when(response.getStatus()).thenReturn(status);
         when(response.getStatusInfo()).thenReturn(Response.Status.fromStatusCode(status));
-        when(response.getHeaders()).thenReturn(new MultivaluedHashMap<>());
+        when(response.getHeaders()).thenReturn(headers);
         return response;
     }
 
@@ -77,6 +78,9 @@ class StubResponseBuilder extends Response.ResponseBuilder {
 
     @Override
     public Response.ResponseBuilder header(String name, Object value) {
+        if (HttpHeaders.ALLOW.equals(name) && value != null) allowed.addAll(List.of(value.toString().split(",")));
+        if (value == null) headers.remove(name);
+        else headers.add(name, value);
         return this;
     }
 
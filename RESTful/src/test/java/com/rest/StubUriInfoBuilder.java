@@ -107,7 +107,7 @@ class StubUriInfoBuilder implements UriInfoBuilder {
 
             @Override
             public MultivaluedMap<String, String> getQueryParameters() {
-                return null;
+                return new MultivaluedHashMap<>();
             }
 
             @Override
@@ -101,6 +101,24 @@ public class SubResourceLocatorTest extends InjectableCallerTest {
         @Path("/message/{param}")
         Message getPathParam(@PathParam("param") BigDecimal path);
 
+        @Path("/message/{param}")
+        Message getPathParam(@PathParam("param") long path);
+
+        @Path("/message/{param}")
+        Message getPathParam(@PathParam("param") Long path);
+
+        @Path("/message/{param}")
+        Message getPathParam(@PathParam("param") Integer path);
+
+        @Path("/message/{param}")
+        Message getPathParam(@PathParam("param") Character path);
+
+        @Path("/message/{param}")
+        Message getPathParam(@PathParam("param") Double path);
+
+        @Path("/message/{param}")
+        Message getPathParam(@PathParam("param") Boolean path);
+
         @Path("/message/")
         Message getQueryParam(@QueryParam("param") String path);
 
@@ -131,6 +149,24 @@ public class SubResourceLocatorTest extends InjectableCallerTest {
         @Path("/message/")
         Message getQueryParam(@QueryParam("param") BigDecimal path);
 
+        @Path("/message/")
+        Message getQueryParam(@QueryParam("param") long path);
+
+        @Path("/message/")
+        Message getQueryParam(@QueryParam("param") Long path);
+
+        @Path("/message/")
+        Message getQueryParam(@QueryParam("param") Integer path);
+
+        @Path("/message/")
+        Message getQueryParam(@QueryParam("param") Character path);
+
+        @Path("/message/")
+        Message getQueryParam(@QueryParam("param") Double path);
+
+        @Path("/message/")
+        Message getQueryParam(@QueryParam("param") Boolean path);
+
         @Path("/message/")
         Message getContext(@Context SomeServiceInContext service);
 
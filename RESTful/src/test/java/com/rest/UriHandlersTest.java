@@ -0,0 +1,60 @@
+package com.rest;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+public class UriHandlersTest {
+
+    @ParameterizedTest
+    @ValueSource(strings = {"/users", "/users/1", "/users/john", "/users/1234", "/users/1234/order", "/users/1/orders/2",
+            "/users/1/orders/2/items", "/orders/1234/cancel", "/users/me", "/users/me/order", "users/1", "/message/",
+            "/message/1", "/missing.messages", "/missingXmessages/1", "/files/a/b/c", "/topic/12", "/topic/oldest", "", "unknown"})
+    void should_choose_the_same_handler_as_sorting_all_matched(String path) {
+        UriHandlers.Ordered<SegmentTrieTest.Handler> ordered = UriHandlers.order(SegmentTrieTest.HANDLERS);
+
+        assertTrue(ordered.firstMatchWins());
+        assertEquals(UriHandlers.match(path, SegmentTrieTest.HANDLERS, r -> true), UriHandlers.match(path, ordered, r -> true));
+    }
+
+    @Test
+    void should_stop_at_first_matched_handler_if_ordered_statically() {
+        PathTemplate specific = spy(new PathTemplate("/users/{id:[0-9]+}"));
+        PathTemplate general = spy(new PathTemplate("/users/{id}"));
+
+        UriHandlers.Ordered<SegmentTrieTest.Handler> ordered = UriHandlers.order(List.of(
+                new SegmentTrieTest.Handler(general), new SegmentTrieTest.Handler(specific)));
+
+        assertSame(specific, UriHandlers.match("/users/1", ordered, r -> true).get().template());
+        verify(general, never()).match(anyString());
+    }
+
+    @Test
+    void should_keep_declared_order_for_equally_specific_handlers() {
+        SegmentTrieTest.Handler first = new SegmentTrieTest.Handler("/users/{id}");
+        SegmentTrieTest.Handler second = new SegmentTrieTest.Handler("/users/{name}");
+
+        assertSame(first, UriHandlers.match("/users/1", UriHandlers.order(List.of(first, second)), r -> true).get());
+    }
+
+    @Test
+    void should_compare_all_matched_if_specificity_not_known_before_matching() {
+        UriTemplate template = mock(UriTemplate.class);
+        when(template.match(anyString())).thenReturn(Optional.empty());
+
+        SegmentTrieTest.Handler handler = new SegmentTrieTest.Handler("/users/{id}");
+
+        UriHandlers.Ordered<SegmentTrieTest.Handler> ordered = UriHandlers.order(List.of(handler, new SegmentTrieTest.Handler(template)));
+
+        assertFalse(ordered.firstMatchWins());
+        assertSame(handler, UriHandlers.match("/users/1", ordered, r -> true).get());
+        verify(template).match("/users/1");
+    }
+}
@@ -0,0 +1,7 @@
+package com.rest.application;
+
+public class Greetings {
+    public String greet(String name) {
+        return "hello " + name;
+    }
+}
@@ -0,0 +1,210 @@
+package com.rest.processor;
+
+import javax.annotation.processing.AbstractProcessor;
+import javax.annotation.processing.RoundEnvironment;
+import javax.annotation.processing.SupportedAnnotationTypes;
+import javax.lang.model.SourceVersion;
+import javax.lang.model.element.*;
+import javax.lang.model.type.ArrayType;
+import javax.lang.model.type.DeclaredType;
+import javax.lang.model.type.TypeKind;
+import javax.lang.model.type.TypeMirror;
+import javax.lang.model.util.ElementFilter;
+import javax.tools.Diagnostic;
+import java.io.IOException;
+import java.io.Writer;
+import java.util.*;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+@SupportedAnnotationTypes("*")
+public class ResourceProcessor extends AbstractProcessor {
+    static final String PATH = "jakarta.ws.rs.Path";
+    static final String HTTP_METHOD = "jakarta.ws.rs.HttpMethod";
+    static final String PATH_PARAM = "jakarta.ws.rs.PathParam";
+    static final String QUERY_PARAM = "jakarta.ws.rs.QueryParam";
+    static final String DEFAULT_VALUE = "jakarta.ws.rs.DefaultValue";
+    static final String SUFFIX = "$Invokers";
+    static final String ROUTES = "$Routes";
+
+    private final Set<String> generated = new HashSet<>();
+
+    @Override
+    public SourceVersion getSupportedSourceVersion() {
+        return SourceVersion.latestSupported();
+    }
+
+    @Override
+    public boolean process(Set<? extends TypeElement> annotations, RoundEnvironment round) {
+        for (TypeElement type : ElementFilter.typesIn(types(round.getRootElements()))) {
+            if (!isAccessible(type) || !generated.add(type.getQualifiedName().toString())) continue;
+            List<ExecutableElement> methods = ElementFilter.methodsIn(type.getEnclosedElements()).stream()
+                    .filter(this::isResourceMethod).toList();
+            if (!methods.isEmpty()) write(type, SUFFIX, source -> source(source.packageName(), source.simpleName(), type, methods));
+            List<ExecutableElement> routes = routes(type);
+            if (!routes.isEmpty() && routes.stream().allMatch(method -> isVisible(method, type)))
+                write(type, ROUTES, source -> routes(source.packageName(), source.simpleName(), routes));
+        }
+        return false;
+    }
+
+    private List<ExecutableElement> routes(TypeElement type) {
+        Map<String, ExecutableElement> members = new LinkedHashMap<>();
+        collect(type, type, members, new HashSet<>());
+        return members.values().stream().filter(this::isRouted).toList();
+    }
+
+    private void collect(TypeElement type, TypeElement current, Map<String, ExecutableElement> members, Set<String> visited) {
+        if (!visited.add(current.getQualifiedName().toString())) return;
+        for (ExecutableElement method : ElementFilter.methodsIn(current.getEnclosedElements())) {
+            Set<Modifier> modifiers = method.getModifiers();
+            if (!modifiers.contains(Modifier.PUBLIC) && current.getKind() != ElementKind.INTERFACE) continue;
+            if (modifiers.contains(Modifier.STATIC) && current.getKind() == ElementKind.INTERFACE && current != type) continue;
+            members.putIfAbsent(key(method), method);
+        }
+        if (current.getSuperclass() instanceof DeclaredType superclass)
+            collect(type, (TypeElement) superclass.asElement(), members, visited);
+        for (TypeMirror anInterface : current.getInterfaces())
+            if (anInterface instanceof DeclaredType declared) collect(type, (TypeElement) declared.asElement(), members, visited);
+    }
+
+    private boolean isRouted(ExecutableElement method) {
+        if (method.getModifiers().contains(Modifier.PRIVATE)) return false;
+        return method.getAnnotationMirrors().stream().anyMatch(a -> isAnnotation(a, PATH) || isHttpMethod(a));
+    }
+
+    private boolean isVisible(ExecutableElement method, TypeElement type) {
+        PackageElement target = processingEnv.getElementUtils().getPackageOf(type);
+        return method.getParameters().stream().allMatch(p -> isVisible(processingEnv.getTypeUtils().erasure(p.asType()), target));
+    }
+
+    private boolean isVisible(TypeMirror type, PackageElement target) {
+        if (type instanceof ArrayType array) return isVisible(array.getComponentType(), target);
+        if (!(type instanceof DeclaredType declared)) return true;
+        boolean samePackage = processingEnv.getElementUtils().getPackageOf(declared.asElement()).equals(target);
+        for (Element element = declared.asElement(); element instanceof TypeElement; element = element.getEnclosingElement()) {
+            Set<Modifier> modifiers = element.getModifiers();
+            if (modifiers.contains(Modifier.PRIVATE) || !samePackage && !modifiers.contains(Modifier.PUBLIC)) return false;
+        }
+        return true;
+    }
+
+    private List<Element> types(Collection<? extends Element> elements) {
+        List<Element> types = new ArrayList<>();
+        for (Element element : elements) {
+            if (!element.getKind().isClass() && !element.getKind().isInterface()) continue;
+            types.add(element);
+            types.addAll(types(element.getEnclosedElements()));
+        }
+        return types;
+    }
+
+    private boolean isResourceMethod(ExecutableElement method) {
+        Set<Modifier> modifiers = method.getModifiers();
+        if (modifiers.contains(Modifier.PRIVATE) || modifiers.contains(Modifier.STATIC)) return false;
+        if (!modifiers.contains(Modifier.PUBLIC) && method.getEnclosingElement().getKind() != ElementKind.INTERFACE) return false;
+        return method.getAnnotationMirrors().stream().anyMatch(a -> isAnnotation(a, PATH) || isHttpMethod(a));
+    }
+
+    private boolean isHttpMethod(AnnotationMirror annotation) {
+        return annotation.getAnnotationType().asElement().getAnnotationMirrors().stream().anyMatch(a -> isAnnotation(a, HTTP_METHOD));
+    }
+
+    private static boolean isAnnotation(AnnotationMirror annotation, String name) {
+        return ((TypeElement) annotation.getAnnotationType().asElement()).getQualifiedName().contentEquals(name);
+    }
+
+    private boolean isAccessible(TypeElement type) {
+        for (Element element = type; element instanceof TypeElement; element = element.getEnclosingElement())
+            if (element.getModifiers().contains(Modifier.PRIVATE)) return false;
+        return true;
+    }
+
+    private void write(TypeElement type, String suffix, Function<Source, String> source) {
+        String packageName = processingEnv.getElementUtils().getPackageOf(type).getQualifiedName().toString();
+        String binaryName = processingEnv.getElementUtils().getBinaryName(type).toString();
+        String simpleName = (packageName.isEmpty() ? binaryName : binaryName.substring(packageName.length() + 1)) + suffix;
+        try (Writer writer = processingEnv.getFiler().createSourceFile(binaryName + suffix, type).openWriter()) {
+            writer.write(source.apply(new Source(packageName, simpleName)));
+        } catch (IOException e) {
+            processingEnv.getMessager().printMessage(Diagnostic.Kind.ERROR, "can not generate " + suffix + ": " + e.getMessage(), type);
+        }
+    }
+
+    String source(String packageName, String simpleName, TypeElement type, List<ExecutableElement> methods) {
+        StringBuilder source = new StringBuilder();
+        if (!packageName.isEmpty()) source.append("package ").append(packageName).append(";\n\n");
+        source.append("@javax.annotation.processing.Generated(\"").append(getClass().getName()).append("\")\n");
+        source.append("public final class ").append(simpleName).append(" implements com.rest.GeneratedInvokers {\n");
+        source.append("    @Override\n");
+        source.append("    public java.util.Map<String, Invoker> invokers() {\n");
+        source.append("        java.util.Map<String, Invoker> invokers = new java.util.HashMap<>();\n");
+        Map<String, ExecutableElement> unique = new LinkedHashMap<>();
+        for (ExecutableElement method : methods) unique.putIfAbsent(key(method), method);
+        unique.forEach((key, method) -> source.append("        invokers.put(\"").append(key).append("\", ")
+                .append(invoker(type, method)).append(");\n"));
+        source.append("        return invokers;\n");
+        source.append("    }\n");
+        source.append("}\n");
+        return source.toString();
+    }
+
+    String routes(String packageName, String simpleName, List<ExecutableElement> methods) {
+        StringBuilder source = new StringBuilder();
+        if (!packageName.isEmpty()) source.append("package ").append(packageName).append(";\n\n");
+        source.append("@javax.annotation.processing.Generated(\"").append(getClass().getName()).append("\")\n");
+        source.append("public final class ").append(simpleName).append(" implements com.rest.GeneratedRoutes {\n");
+        source.append("    @Override\n");
+        source.append("    public java.util.List<Route> routes() {\n");
+        source.append("        return java.util.List.of(");
+        source.append(methods.stream().map(method -> "\n                " + route(method)).collect(Collectors.joining(",")));
+        source.append(");\n");
+        source.append("    }\n");
+        source.append("}\n");
+        return source.toString();
+    }
+
+    private String route(ExecutableElement method) {
+        String path = method.getAnnotationMirrors().stream().filter(a -> isAnnotation(a, PATH)).findFirst().map(a -> literal(value(a))).orElse("\"\"");
+        String httpMethod = method.getAnnotationMirrors().stream().filter(this::isHttpMethod).findFirst()
+                .flatMap(a -> a.getAnnotationType().asElement().getAnnotationMirrors().stream().filter(m -> isAnnotation(m, HTTP_METHOD)).findFirst())
+                .map(a -> literal(value(a))).orElse("null");
+        String types = method.getParameters().stream().map(p -> erasure(p.asType()) + ".class").collect(Collectors.joining(", "));
+        String parameters = method.getParameters().stream().map(p -> "new Parameter(" + parameter(p, PATH_PARAM) + ", "
+                + parameter(p, QUERY_PARAM) + ", " + parameter(p, DEFAULT_VALUE) + ")").collect(Collectors.joining(", "));
+        return "new Route(" + path + ", " + httpMethod + ", \"" + method.getSimpleName() + "\", java.util.List.of(" + types + "), java.util.List.of(" + parameters + "))";
+    }
+
+    private String parameter(VariableElement parameter, String annotation) {
+        return parameter.getAnnotationMirrors().stream().filter(a -> isAnnotation(a, annotation)).findFirst().map(a -> literal(value(a))).orElse("null");
+    }
+
+    private String value(AnnotationMirror annotation) {
+        return processingEnv.getElementUtils().getElementValuesWithDefaults(annotation).entrySet().stream()
+                .filter(e -> e.getKey().getSimpleName().contentEquals("value")).findFirst().map(e -> (String) e.getValue().getValue()).orElse("");
+    }
+
+    private String literal(String value) {
+        return processingEnv.getElementUtils().getConstantExpression(value);
+    }
+
+    private String invoker(TypeElement type, ExecutableElement method) {
+        List<? extends VariableElement> parameters = method.getParameters();
+        String arguments = parameters.stream().map(p -> "(" + erasure(p.asType()) + ") arguments[" + parameters.indexOf(p) + "]")
+                .collect(Collectors.joining(", "));
+        String call = "((" + type.getQualifiedName() + ") target)." + method.getSimpleName() + "(" + arguments + ")";
+        if (method.getReturnType().getKind() == TypeKind.VOID) return "(target, arguments) -> {\n            " + call + ";\n            return null;\n        }";
+        return "(target, arguments) -> " + call;
+    }
+
+    private String key(ExecutableElement method) {
+        return method.getSimpleName() + method.getParameters().stream().map(p -> erasure(p.asType())).collect(Collectors.joining(",", "(", ")"));
+    }
+
+    private String erasure(TypeMirror type) {
+        return processingEnv.getTypeUtils().erasure(type).toString();
+    }
+
+    record Source(String packageName, String simpleName) {
+    }
+}
@@ -0,0 +1,168 @@
+package com.rest.processor;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import javax.tools.*;
+import java.io.ByteArrayOutputStream;
+import java.io.OutputStream;
+import java.net.URI;
+import java.util.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ResourceProcessorTest {
+
+    private Map<String, String> generated;
+
+    @BeforeEach
+    void setUp() {
+        generated = compile(Map.of(
+                "jakarta/ws/rs/Path.java", "package jakarta.ws.rs; public @interface Path { String value(); }",
+                "jakarta/ws/rs/HttpMethod.java", "package jakarta.ws.rs; public @interface HttpMethod { String value(); }",
+                "jakarta/ws/rs/GET.java", "package jakarta.ws.rs; @HttpMethod(\"GET\") public @interface GET { }",
+                "jakarta/ws/rs/PathParam.java", "package jakarta.ws.rs; public @interface PathParam { String value(); }",
+                "jakarta/ws/rs/QueryParam.java", "package jakarta.ws.rs; public @interface QueryParam { String value(); }",
+                "jakarta/ws/rs/DefaultValue.java", "package jakarta.ws.rs; public @interface DefaultValue { String value(); }",
+                "com/rest/GeneratedInvokers.java", """
+                        package com.rest;
+                        public interface GeneratedInvokers {
+                            java.util.Map<String, Invoker> invokers();
+                            interface Invoker { Object invoke(Object target, Object[] arguments) throws Throwable; }
+                        }
+                        """,
+                "com/example/Users.java", """
+                        package com.example;
+                        import jakarta.ws.rs.*;
+                        import java.util.List;
+                        @Path("/users")
+                        public class Users extends Base {
+                            @GET public String get() { return ""; }
+                            @GET @Path("/search") public String search(@PathParam("id") int id, @QueryParam("q") @DefaultValue("all") String q) { return ""; }
+                            public String overridden() { return ""; }
+                            @GET @Path("/{id}") public String get(int id) { return ""; }
+                            @GET @Path("/names") public String get(List<String> names) { return ""; }
+                            @GET @Path("/delete") public void delete() { }
+                            @Path("/{id}/orders") public Orders orders() { return new Orders(); }
+                            public String notResourceMethod() { return ""; }
+                            @GET String notPublic() { return ""; }
+                            @GET public static String isStatic() { return ""; }
+                            public static class Orders {
+                                @GET public String get(Integer id) { return ""; }
+                            }
+                            private static class Hidden {
+                                @GET public String get() { return ""; }
+                            }
+                        }
+                        class Base {
+                            @GET @Path("/base") public String base() { return ""; }
+                            @GET @Path("/overridden") public String overridden() { return ""; }
+                        }
+                        """));
+    }
+
+    @Test
+    void should_generate_invokers_for_resource_methods() {
+        String source = generated.get("com.example.Users$Invokers");
+
+        assertTrue(source.contains("public final class Users$Invokers implements com.rest.GeneratedInvokers"));
+        assertTrue(source.contains("invokers.put(\"get()\", (target, arguments) -> ((com.example.Users) target).get());"));
+        assertTrue(source.contains("invokers.put(\"get(int)\", (target, arguments) -> ((com.example.Users) target).get((int) arguments[0]));"));
+        assertTrue(source.contains("invokers.put(\"get(java.util.List)\", (target, arguments) -> ((com.example.Users) target).get((java.util.List) arguments[0]));"));
+        assertTrue(source.contains("invokers.put(\"orders()\", (target, arguments) -> ((com.example.Users) target).orders());"));
+    }
+
+    @Test
+    void should_return_null_from_invoker_of_void_method() {
+        assertTrue(generated.get("com.example.Users$Invokers").contains("""
+                        invokers.put("delete()", (target, arguments) -> {
+                            ((com.example.Users) target).delete();
+                            return null;
+                        });
+                """));
+    }
+
+    @Test
+    void should_not_generate_invokers_for_non_resource_methods() {
+        String source = generated.get("com.example.Users$Invokers");
+
+        assertFalse(source.contains("notResourceMethod"));
+        assertFalse(source.contains("notPublic"));
+        assertFalse(source.contains("isStatic"));
+    }
+
+    @Test
+    void should_generate_invokers_for_nested_resource_classes() {
+        assertTrue(generated.get("com.example.Users$Orders$Invokers")
+                .contains("invokers.put(\"get(java.lang.Integer)\", (target, arguments) -> ((com.example.Users.Orders) target).get((java.lang.Integer) arguments[0]));"));
+    }
+
+    @Test
+    void should_generate_route_table_for_resource_methods_and_locators() {
+        String source = generated.get("com.example.Users$Routes");
+
+        assertTrue(source.contains("public final class Users$Routes implements com.rest.GeneratedRoutes"));
+        assertTrue(source.contains("new Route(\"\", \"GET\", \"get\", java.util.List.of(), java.util.List.of())"));
+        assertTrue(source.contains("new Route(\"/{id}\", \"GET\", \"get\", java.util.List.of(int.class), java.util.List.of(new Parameter(null, null, null)))"));
+        assertTrue(source.contains("new Route(\"/{id}/orders\", null, \"orders\", java.util.List.of(), java.util.List.of())"));
+    }
+
+    @Test
+    void should_generate_binding_plan_of_parameters_in_route_table() {
+        assertTrue(generated.get("com.example.Users$Routes").contains("new Route(\"/search\", \"GET\", \"search\", java.util.List.of(int.class, java.lang.String.class), "
+                + "java.util.List.of(new Parameter(\"id\", null, null), new Parameter(null, \"q\", \"all\")))"));
+    }
+
+    @Test
+    void should_include_inherited_routes_not_overridden_in_route_table() {
+        String source = generated.get("com.example.Users$Routes");
+
+        assertTrue(source.contains("new Route(\"/base\", \"GET\", \"base\""));
+        assertFalse(source.contains("overridden"));
+        assertFalse(source.contains("notPublic"));
+    }
+
+    @Test
+    void should_not_generate_invokers_for_private_classes() {
+        assertFalse(generated.containsKey("com.example.Users$Hidden$Invokers"));
+        assertFalse(generated.containsKey("com.example.Users$Hidden$Routes"));
+        assertFalse(generated.keySet().stream().anyMatch(name -> name.startsWith("jakarta")));
+    }
+
+    private static Map<String, String> compile(Map<String, String> sources) {
+        JavaCompiler compiler = ToolProvider.getSystemJavaCompiler();
+        Map<String, String> generated = new HashMap<>();
+        JavaFileManager fileManager = new ForwardingJavaFileManager<>(compiler.getStandardFileManager(null, null, null)) {
+            @Override
+            public JavaFileObject getJavaFileForOutput(Location location, String className, JavaFileObject.Kind kind, FileObject sibling) {
+                return new SimpleJavaFileObject(URI.create("mem:///" + className.replace('.', '/') + kind.extension), kind) {
+                    @Override
+                    public OutputStream openOutputStream() {
+                        return new ByteArrayOutputStream() {
+                            @Override
+                            public void close() {
+                                generated.put(className, toString());
+                            }
+                        };
+                    }
+
+                    @Override
+                    public CharSequence getCharContent(boolean ignoreEncodingErrors) {
+                        return generated.get(className);
+                    }
+                };
+            }
+        };
+        List<JavaFileObject> units = sources.entrySet().stream().<JavaFileObject>map(source ->
+                new SimpleJavaFileObject(URI.create("mem:///" + source.getKey()), JavaFileObject.Kind.SOURCE) {
+                    @Override
+                    public CharSequence getCharContent(boolean ignoreEncodingErrors) {
+                        return source.getValue();
+                    }
+                }).toList();
+        JavaCompiler.CompilationTask task = compiler.getTask(null, fileManager, null, List.of("-proc:only"), null, units);
+        task.setProcessors(List.of(new ResourceProcessor()));
+        assertTrue(task.call());
+        return generated;
+    }
+}
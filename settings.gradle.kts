@@ -10,3 +10,4 @@
 rootProject.name = "TDDPractical"
 include("DiContainer")
 include("RESTful")
+include("RESTfulProcessor")